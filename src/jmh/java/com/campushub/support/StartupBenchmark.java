@@ -0,0 +1,191 @@
+package com.campushub.support;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Cold start of the packaged service, from JVM launch to the "Started" log line, in the packagings of the
+// Dockerfile: the fat jar launcher (the former image), a plain classpath of the extracted layers, plus Spring
+// AOT, plus the AppCDS archive of a training run. Build the jar with mvn -Pstartup package first.
+// H2 from the test classpath stands in for MySQL; the registry, config server and broker are not contacted.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1) // every invocation starts its own JVM; this one only waits for it
+public class StartupBenchmark {
+
+    private static final String MAIN_CLASS = "com.campushub.support.CampushubSupportServiceApplication";
+    private static final String STARTED = "Started CampushubSupportServiceApplication";
+    private static final String JAR_LAUNCHER = "org.springframework.boot.loader.launch.JarLauncher";
+
+    @Param({"jar", "classpath", "aot", "aot-cds"})
+    public String mode;
+
+    private Path workDir;
+    private List<String> command;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Path jar = findJar();
+        String h2 = Paths.get(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        workDir = Files.createTempDirectory("startup-benchmark");
+
+        List<String> settings = List.of(
+                "-Dspring.cloud.config.enabled=false",
+                "-Deureka.client.register-with-eureka=false",
+                "-Deureka.client.fetch-registry=false",
+                "-Dspring.datasource.url=jdbc:h2:mem:startup",
+                "-Dspring.jpa.hibernate.ddl-auto=create",
+                "-Dspring.rabbitmq.listener.simple.auto-startup=false",
+                "-Dserver.port=0",
+                "-Djwt.secret=c3b3f4d4a5e5b6c6d7e7f8a8b9c9d0e0f1a1b2c2d3e3f4a4b5c5d6e6f7a7b8c8");
+
+        command = new ArrayList<>(List.of(java()));
+        if (mode.equals("jar")) {
+            // What java -jar does, with H2 visible to the launched class loader through its parent
+            command.addAll(List.of("-cp", jar + File.pathSeparator + h2));
+            command.addAll(settings);
+            command.add(JAR_LAUNCHER);
+            return;
+        }
+
+        String classpath = extract(jar) + File.pathSeparator + h2;
+        command.addAll(List.of("-cp", classpath));
+        command.addAll(settings);
+        if (mode.startsWith("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        if (mode.equals("aot-cds")) {
+            Path archive = workDir.resolve("application.jsa");
+            List<String> training = new ArrayList<>(command);
+            training.add(1, "-XX:ArchiveClassesAtExit=" + archive);
+            training.add("-Dspring.context.exit=onRefresh");
+            training.add(MAIN_CLASS);
+            Process run = new ProcessBuilder(training).directory(workDir.toFile())
+                    .redirectErrorStream(true).redirectOutput(workDir.resolve("training.log").toFile()).start();
+            if (run.waitFor() != 0 || !Files.exists(archive)) {
+                throw new IllegalStateException("AppCDS training run failed, see " + workDir.resolve("training.log"));
+            }
+            command.add(1, "-XX:SharedArchiveFile=" + archive);
+        }
+        command.add(MAIN_CLASS);
+    }
+
+    @Benchmark
+    public void startUntilReady() throws IOException, InterruptedException {
+        process = new ProcessBuilder(command).directory(workDir.toFile()).redirectErrorStream(true).start();
+        BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        Deque<String> tail = new ArrayDeque<>();
+        String line;
+        while ((line = output.readLine()) != null) {
+            if (line.contains(STARTED)) {
+                return;
+            }
+            tail.addLast(line);
+            if (tail.size() > 20) {
+                tail.removeFirst();
+            }
+        }
+        throw new IllegalStateException("The service exited before starting (exit code " + process.waitFor()
+                + "); for the aot modes, build the jar with mvn -Pstartup package. Last output:\n"
+                + String.join("\n", tail));
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanUp() throws IOException {
+        try (Stream<Path> files = Files.walk(workDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // Same layout as the Dockerfile: dependencies in lib/, application classes repacked as application.jar
+    private String extract(Path jar) throws IOException, InterruptedException {
+        Path layers = workDir.resolve("layers");
+        Process run = new ProcessBuilder(java(), "-Djarmode=layertools", "-jar", jar.toString(),
+                "extract", "--destination", layers.toString()).inheritIO().start();
+        if (run.waitFor() != 0) {
+            throw new IllegalStateException("Could not extract the layers of " + jar);
+        }
+
+        Path lib = Files.createDirectories(workDir.resolve("lib"));
+        for (String layer : List.of("dependencies", "snapshot-dependencies")) {
+            Path jars = layers.resolve(layer).resolve("BOOT-INF/lib");
+            if (Files.isDirectory(jars)) {
+                try (Stream<Path> files = Files.list(jars)) {
+                    for (Path file : files.toList()) {
+                        Files.copy(file, lib.resolve(file.getFileName()));
+                    }
+                }
+            }
+        }
+        Path application = workDir.resolve("application.jar");
+        Path classes = layers.resolve("application/BOOT-INF/classes");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(application));
+             Stream<Path> files = Files.walk(classes)) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                out.putNextEntry(new JarEntry(classes.relativize(file).toString().replace('\\', '/')));
+                Files.copy(file, out);
+                out.closeEntry();
+            }
+        }
+
+        try (Stream<Path> files = Files.list(lib)) {
+            return Stream.concat(Stream.of(application), files.sorted())
+                    .map(Path::toString)
+                    .collect(Collectors.joining(File.pathSeparator));
+        }
+    }
+
+    private static Path findJar() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get("target").toAbsolutePath())) {
+            return files.filter(file -> file.getFileName().toString().matches("campushub-support-service-.*\\.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in target/: run mvn -Pstartup package first"));
+        }
+    }
+
+    private static String java() {
+        return Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    }
+}
@@ -0,0 +1,116 @@
+package com.campushub.support.config;
+
+import com.campushub.support.security.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import jakarta.xml.bind.DatatypeConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Cost of the instrumentation itself: a cached JWT parse with its timer denied vs recorded into a Prometheus
+// registry with histograms on (as in application.properties), and the three recording patterns used in the
+// code: a pre-registered timer, a counter looked up by tags on each call, and a Timer.Sample
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private static final String SECRET = "c3b3f4d4a5e5b6c6d7e7f8a8b9c9d0e0f1a1b2c2d3e3f4a4b5c5d6e6f7a7b8c8";
+
+    private MeterRegistry registry;
+    private JwtService uninstrumentedJwt;
+    private JwtService instrumentedJwt;
+    private Timer timer;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+        SimpleMeterRegistry disabled = new SimpleMeterRegistry();
+        disabled.config().meterFilter(MeterFilter.denyNameStartsWith("jwt.parse"));
+
+        uninstrumentedJwt = new JwtService(SECRET, 10_000, Duration.ofMinutes(10), disabled);
+        instrumentedJwt = new JwtService(SECRET, 10_000, Duration.ofMinutes(10), registry);
+        timer = Timer.builder("benchmark.timer").register(registry);
+        token = Jwts.builder()
+                .setSubject("dean")
+                .claim("id", 3L)
+                .claim("role", "dean")
+                .setExpiration(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                .signWith(Keys.hmacShaKeyFor(DatatypeConverter.parseHexBinary(SECRET)))
+                .compact();
+        // Both caches warm: the benchmarks measure the cached path
+        uninstrumentedJwt.parse(token);
+        instrumentedJwt.parse(token);
+    }
+
+    @Benchmark
+    public Optional<?> cachedJwtParseUninstrumented() {
+        return uninstrumentedJwt.parse(token);
+    }
+
+    @Benchmark
+    public Optional<?> cachedJwtParseInstrumented() {
+        return instrumentedJwt.parse(token);
+    }
+
+    // NotificationProducer, JwtService
+    @Benchmark
+    public void preRegisteredTimer() {
+        timer.record(1_000, TimeUnit.NANOSECONDS);
+    }
+
+    // SupportCoursServiceImpl#countTransition: builder and registry lookup on every call
+    @Benchmark
+    public void counterLookedUpByTags() {
+        Counter.builder("supports.transitions")
+                .tag("operation", "validateSupport")
+                .tag("from", "SOUMIS")
+                .tag("to", "VALIDÉ")
+                .tag("outcome", "applied")
+                .register(registry)
+                .increment();
+    }
+
+    // UserServiceClient: a sample per call, stopped into the timer of its outcome
+    @Benchmark
+    public long timerSample() {
+        Timer.Sample sample = Timer.start(registry);
+        return sample.stop(Timer.builder("user.service.calls")
+                .tag("operation", "user-by-id")
+                .tag("outcome", "success")
+                .register(registry));
+    }
+}
@@ -0,0 +1,89 @@
+package com.campushub.support.controller;
+
+import com.campushub.support.dto.CursorPage;
+import com.campushub.support.dto.PageDigest;
+import com.campushub.support.dto.SupportCoursDto;
+import com.campushub.support.dto.SupportCoursSummaryDto;
+import com.campushub.support.model.Niveau;
+import com.campushub.support.model.Statut;
+import com.campushub.support.model.SupportCours;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Entity -> DTO mapping and JSON rendering of list payloads, full DTOs versus list summaries
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SupportCoursSerializationBenchmark {
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final SupportCoursController controller = new SupportCoursController(null, objectMapper, Duration.ZERO, 500);
+    private List<SupportCours> supports;
+    private CursorPage<SupportCoursSummaryDto> summaries;
+
+    @Setup
+    public void setUp() {
+        supports = new ArrayList<>(size);
+        List<SupportCoursSummaryDto> summaryItems = new ArrayList<>(size);
+        Niveau[] niveaux = Niveau.values();
+        for (int i = 0; i < size; i++) {
+            SupportCours support = new SupportCours();
+            support.setId((long) i);
+            support.setTitre("Cours " + i);
+            support.setDescription("Description du cours " + i + " ".repeat(200));
+            support.setFichierUrl("https://files.campushub.local/supports/" + i + ".pdf");
+            support.setNiveau(niveaux[i % niveaux.length]);
+            support.setMatiere("Matiere " + (i % 40));
+            support.setEnseignantId((long) (i % 200));
+            support.setDateDepot(LocalDate.of(2024, 1, 1).plusDays(i % 365));
+            support.setStatut(Statut.VALIDÉ);
+            support.setDateValidation(support.getDateDepot().plusDays(3));
+            support.setRemarqueDoyen("Validé");
+            supports.add(support);
+            summaryItems.add(new SupportCoursSummaryDto(support.getId(), support.getTitre(), support.getFichierUrl(),
+                    support.getNiveau(), support.getMatiere(), support.getEnseignantId(), support.getDateDepot(),
+                    support.getStatut(), support.getDateValidation()));
+        }
+        summaries = new CursorPage<>(summaryItems, null, size, PageDigest.of(summaryItems, null, size));
+    }
+
+    @Benchmark
+    public List<SupportCoursDto> convertToDto() {
+        return supports.stream().map(controller::convertToDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] convertAndSerializeDtos() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(convertToDto());
+    }
+
+    @Benchmark
+    public byte[] serializeSummaryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
@@ -0,0 +1,110 @@
+package com.campushub.support.repository;
+
+import com.campushub.support.CampushubSupportServiceApplication;
+import com.campushub.support.amqp.InMemoryAmqpConfiguration;
+import com.campushub.support.dto.SupportCoursFilter;
+import com.campushub.support.dto.SupportCoursSummaryDto;
+import com.campushub.support.model.Niveau;
+import com.campushub.support.model.Statut;
+import com.campushub.support.model.SupportCours;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// List queries against H2 through the real repositories (application context from src/test/resources)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SupportCoursRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private SupportCoursRepository repository;
+    private SupportCoursFilter statutFilter;
+    private Long deepCursor;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(CampushubSupportServiceApplication.class, InMemoryAmqpConfiguration.class)
+                .properties("jwt.secret=c3b3f4d4a5e5b6c6d7e7f8a8b9c9d0e0f1a1b2c2d3e3f4a4b5c5d6e6f7a7b8c8",
+                        "spring.datasource.url=jdbc:h2:mem:support_benchdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        repository = context.getBean(SupportCoursRepository.class);
+        repository.deleteAll();
+
+        Niveau[] niveaux = Niveau.values();
+        Statut[] statuts = Statut.values();
+        List<SupportCours> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            SupportCours support = new SupportCours();
+            support.setTitre("Cours " + i);
+            support.setDescription("Description du cours " + i);
+            support.setFichierUrl("https://files.campushub.local/supports/" + i + ".pdf");
+            support.setNiveau(niveaux[i % niveaux.length]);
+            support.setMatiere("Matiere " + (i % 40));
+            support.setEnseignantId((long) (i % 200));
+            support.setStatut(statuts[i % statuts.length]);
+            batch.add(support);
+            if (batch.size() == 1000) {
+                repository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        repository.saveAll(batch);
+
+        statutFilter = new SupportCoursFilter();
+        statutFilter.setStatut(Statut.SOUMIS);
+        List<SupportCoursSummaryDto> all = repository.findSummaryPage(new SupportCoursFilter(), null, rows);
+        deepCursor = all.get(rows - rows / 10).getId();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<SupportCoursSummaryDto> firstPage() {
+        return repository.findSummaryPage(new SupportCoursFilter(), null, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public List<SupportCoursSummaryDto> deepPage() {
+        return repository.findSummaryPage(new SupportCoursFilter(), deepCursor, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public List<SupportCoursSummaryDto> filteredByStatut() {
+        return repository.findSummaryPage(statutFilter, null, PAGE_SIZE + 1);
+    }
+
+    // Unpaginated entity list, as served by /pending before keyset pagination
+    @Benchmark
+    public List<SupportCours> findAllByStatut() {
+        return repository.findByStatut(Statut.SOUMIS);
+    }
+}
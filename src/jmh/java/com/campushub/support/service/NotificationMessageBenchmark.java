@@ -0,0 +1,55 @@
+package com.campushub.support.service;
+
+import com.campushub.support.dto.SupportNotification;
+import com.campushub.support.model.Niveau;
+import com.campushub.support.model.Statut;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+// SupportNotification <-> AMQP message through the converter configured in RabbitMQConfig
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationMessageBenchmark {
+
+    private final Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+    private SupportNotification notification;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        // A department-wide recipient list, as sent by validateSupport
+        List<Long> recipients = LongStream.rangeClosed(1, 200).boxed().toList();
+        notification = new SupportNotification(42L, "Analyse numérique - chapitre 3", recipients, 7L,
+                Statut.VALIDÉ, Niveau.values()[0], "Mathématiques");
+        message = converter.toMessage(notification, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message toMessage() {
+        return converter.toMessage(notification, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object fromMessage() {
+        return converter.fromMessage(message);
+    }
+}
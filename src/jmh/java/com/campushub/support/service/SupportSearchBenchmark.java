@@ -0,0 +1,97 @@
+package com.campushub.support.service;
+
+import com.campushub.support.dto.SearchPage;
+import com.campushub.support.dto.SupportCoursSummaryDto;
+import com.campushub.support.model.Niveau;
+import com.campushub.support.model.Statut;
+import com.campushub.support.model.SupportCours;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Search latency distribution (SampleTime reports p50/p95/p99) on an in-memory index of generated supports
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SupportSearchBenchmark {
+
+    private static final String[] SUBJECTS = {"Mathématiques", "Informatique", "Physique", "Chimie", "Biologie",
+            "Économie", "Droit", "Histoire", "Géographie", "Philosophie"};
+    private static final String[] WORDS = {"analyse", "algèbre", "réseaux", "algorithmique", "thermodynamique",
+            "mécanique", "probabilités", "statistiques", "compilation", "optique", "génétique", "macroéconomie",
+            "contrats", "révolution", "cartographie", "éthique", "électronique", "bases", "données", "systèmes"};
+
+    @Param({"500000"})
+    public int documents;
+
+    private SupportSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Rebuild is never triggered here, so the repository is not needed
+        index = new SupportSearchIndex(null, "", 1000);
+        Random random = new Random(42);
+        for (long id = 1; id <= documents; id++) {
+            SupportCours support = new SupportCours(id,
+                    word(random) + " " + word(random) + " - chapitre " + (id % 12 + 1),
+                    "Cours de " + word(random) + ", " + word(random) + " et " + word(random) + " pour le semestre " + (id % 2 + 1),
+                    "http://files/" + id + ".pdf",
+                    Niveau.values()[(int) (id % Niveau.values().length)],
+                    SUBJECTS[random.nextInt(SUBJECTS.length)],
+                    id % 500,
+                    LocalDate.of(2024, 1, 1).plusDays(id % 365),
+                    Statut.values()[(int) (id % Statut.values().length)],
+                    null, null, 0L, null, null, null, null, null);
+            index.onSupportChanged(new SupportChangedEvent(id, support));
+        }
+        index.commit();
+        index.refresh();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Benchmark
+    public SearchPage<SupportCoursSummaryDto> singleTerm() {
+        return index.search("reseaux", null, null, 0, 20);
+    }
+
+    @Benchmark
+    public SearchPage<SupportCoursSummaryDto> twoTermsWithPrefix() {
+        return index.search("analyse prob", null, null, 0, 20);
+    }
+
+    @Benchmark
+    public SearchPage<SupportCoursSummaryDto> filtered() {
+        return index.search("algorithmique", Niveau.L3, Statut.VALIDÉ, 0, 20);
+    }
+
+    @Benchmark
+    public SearchPage<SupportCoursSummaryDto> deepPage() {
+        return index.search("donnees", null, null, 40, 20);
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+}
@@ -0,0 +1,72 @@
+package com.campushub.support.client;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the userId -> department and department -> members lookups against campushub-user-service.
+ * Both caches hold futures, so concurrent callers asking for the same key share a single in-flight
+ * request (single-flight) and no lock is held while the HTTP call is running. Failed loads are not kept.
+ */
+@Component
+public class UserDirectoryCache {
+
+    private final UserServiceClient userServiceClient;
+    private final AsyncCache<Long, String> departmentByUser;
+    private final AsyncCache<String, List<UserDto>> membersByDepartment;
+    private final Duration loadTimeout;
+
+    // Lazy: the client (WebClient, load balancer, circuit breaker) is built on the first lookup, not at startup
+    public UserDirectoryCache(@Lazy UserServiceClient userServiceClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${supports.user-directory.ttl:10m}") Duration ttl,
+                              @Value("${supports.user-directory.max-size:10000}") long maxSize,
+                              @Value("${supports.user-directory.load-timeout:5s}") Duration loadTimeout) {
+        this.userServiceClient = userServiceClient;
+        this.loadTimeout = loadTimeout;
+        this.departmentByUser = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.membersByDepartment = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, departmentByUser.synchronous(), "userDepartments");
+        CaffeineCacheMetrics.monitor(meterRegistry, membersByDepartment.synchronous(), "departmentMembers");
+    }
+
+    // Completes with null when the user has no department (the null result is not cached)
+    public CompletableFuture<String> departmentOf(Long userId, String token) {
+        return departmentByUser.get(userId, (id, executor) -> userServiceClient.fetchUserById(id, token)
+                .mapNotNull(UserDto::getDepartment)
+                .toFuture());
+    }
+
+    public CompletableFuture<List<UserDto>> membersOf(String department, String token) {
+        return membersByDepartment.get(department, (key, executor) -> userServiceClient.fetchUsersByDepartment(key, token)
+                .map(List::copyOf)
+                .toFuture());
+    }
+
+    // Members of the department the given user belongs to; fails when the user has no department.
+    // The timeout applies to this caller's view only, the shared load keeps running for the others.
+    public CompletableFuture<List<UserDto>> departmentMembersOf(Long userId, String token) {
+        return departmentOf(userId, token).thenCompose(department -> department == null
+                        ? CompletableFuture.<List<UserDto>>failedFuture(new IllegalStateException("No department for user " + userId))
+                        : membersOf(department, token))
+                .orTimeout(loadTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
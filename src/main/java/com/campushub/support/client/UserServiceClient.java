@@ -1,36 +1,150 @@
 package com.campushub.support.client;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Non-blocking client for campushub-user-service. Each lookup is a cold Mono that callers compose
+ * (see UserDirectoryCache). Every attempt has its own timeout; a hedge request is sent when the first
+ * attempt has not answered after hedge-delay (both are idempotent GETs, the first answer wins);
+ * transient failures are retried with jittered backoff; the whole call runs through the "user-service"
+ * circuit breaker configured in WebClientConfig. Created on first use, off the startup path.
+ */
+@Lazy
 @Component
 public class UserServiceClient {
 
+    public static final String CIRCUIT_BREAKER = "user-service";
+
     private final WebClient webClient;
+    private final ReactiveCircuitBreaker circuitBreaker;
+    private final Duration callTimeout;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final Duration hedgeDelay;
+    private final Counter hedges;
+    private final MeterRegistry meterRegistry;
 
-    public UserServiceClient(WebClient.Builder webClientBuilder) {
-        this.webClient = webClientBuilder.baseUrl("lb://campushub-user-service").build();
+    public UserServiceClient(WebClient.Builder webClientBuilder,
+                             ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory,
+                             MeterRegistry meterRegistry,
+                             @Value("${supports.user-service.base-url:lb://campushub-user-service}") String baseUrl,
+                             @Value("${supports.user-service.call-timeout:1s}") Duration callTimeout,
+                             @Value("${supports.user-service.max-retries:2}") int maxRetries,
+                             @Value("${supports.user-service.retry-backoff:100ms}") Duration retryBackoff,
+                             @Value("${supports.user-service.hedge-delay:300ms}") Duration hedgeDelay) {
+        this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.circuitBreaker = circuitBreakerFactory.create(CIRCUIT_BREAKER);
+        this.callTimeout = callTimeout;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.hedgeDelay = hedgeDelay;
+        this.hedges = Counter.builder("user.service.hedges")
+                .description("Hedge requests sent because the first attempt was slow")
+                .register(meterRegistry);
+        this.meterRegistry = meterRegistry;
     }
 
-    public List<UserDto> getUsersByDepartment(String department, String token) {
-        return webClient.get()
+    public Mono<List<UserDto>> fetchUsersByDepartment(String department, String token) {
+        return resilient("users-by-department", webClient.get()
                 .uri("/api/users/department/{department}", department)
                 .header("Authorization", "Bearer " + token)
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<List<UserDto>>() {})
-                .block();
+                .bodyToMono(new ParameterizedTypeReference<List<UserDto>>() {}));
     }
 
-    public UserDto getUserById(Long userId, String token) {
-        return webClient.get()
+    public Mono<UserDto> fetchUserById(Long userId, String token) {
+        return resilient("user-by-id", webClient.get()
                 .uri("/api/users/{userId}", userId)
                 .header("Authorization", "Bearer " + token)
                 .retrieve()
-                .bodyToMono(UserDto.class)
-                .block();
+                .bodyToMono(UserDto.class));
+    }
+
+    // Connection errors, timeouts and 5xx responses; 4xx answers are final
+    public static boolean isTransient(Throwable error) {
+        return error instanceof WebClientRequestException
+                || error instanceof TimeoutException
+                || (error instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError());
+    }
+
+    // Timed end to end (hedges and retries included); per-attempt HTTP timings come from the Reactor Netty pool metrics
+    private <T> Mono<T> resilient(String operation, Mono<T> request) {
+        Mono<T> attempt = request.timeout(callTimeout);
+        Mono<T> call = circuitBreaker.run(hedged(attempt)
+                .retryWhen(Retry.backoff(maxRetries, retryBackoff)
+                        .jitter(0.5)
+                        .filter(UserServiceClient::isTransient)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure())),
+                // Surface the original failure (or CallNotPermittedException) instead of NoFallbackAvailableException
+                Mono::error);
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call
+                    .doOnSuccess(result -> sample.stop(callTimer(operation, "success")))
+                    .doOnError(error -> sample.stop(callTimer(operation, outcomeOf(error))))
+                    .doOnCancel(() -> sample.stop(callTimer(operation, "cancelled")));
+        });
+    }
+
+    private Timer callTimer(String operation, String outcome) {
+        return Timer.builder("user.service.calls")
+                .description("User-service lookups, retries and hedges included")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String outcomeOf(Throwable error) {
+        if (error instanceof CallNotPermittedException) {
+            return "circuit_open";
+        }
+        if (error instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        }
+        return error instanceof WebClientRequestException ? "connect_error" : "error";
+    }
+
+    private <T> Mono<T> hedged(Mono<T> attempt) {
+        if (hedgeDelay.isZero() || hedgeDelay.isNegative()) {
+            return attempt;
+        }
+        return Mono.defer(() -> {
+            // No hedge once the first attempt has already failed: retries handle that case
+            AtomicBoolean settled = new AtomicBoolean();
+            Mono<T> primary = attempt.doOnTerminate(() -> settled.set(true));
+            Mono<T> hedge = Mono.delay(hedgeDelay)
+                    .filter(tick -> !settled.get())
+                    .flatMap(tick -> {
+                        hedges.increment();
+                        return attempt;
+                    });
+            // When both fail, report the first failure rather than firstWithValue's NoSuchElementException
+            return Mono.firstWithValue(primary, hedge)
+                    .onErrorMap(NoSuchElementException.class, e -> e.getCause() != null ? Exceptions.unwrapMultiple(e.getCause()).get(0) : e);
+        });
     }
 }
@@ -0,0 +1,43 @@
+package com.campushub.support.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Collections;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String SUPPORTS_CACHE = "supports";
+    public static final String SUPPORT_PAGES_CACHE = "supportPages";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${supports.cache.ttl:60s}") Duration ttl,
+            @Value("${supports.cache.max-size:10000}") long maxSize,
+            @Value("${supports.cache.pages.ttl:30s}") Duration pagesTtl,
+            @Value("${supports.cache.pages.max-size:1000}") long pagesMaxSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Only the caches registered below exist; no ad-hoc unbounded caches
+        cacheManager.setCacheNames(Collections.emptyList());
+        // recordStats() feeds the cache.gets/cache.puts/cache.evictions actuator metrics
+        cacheManager.registerCustomCache(SUPPORTS_CACHE, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(SUPPORT_PAGES_CACHE, Caffeine.newBuilder()
+                .maximumSize(pagesMaxSize)
+                .expireAfterWrite(pagesTtl)
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
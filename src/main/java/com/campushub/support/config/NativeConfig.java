@@ -0,0 +1,89 @@
+package com.campushub.support.config;
+
+import com.campushub.support.client.UserDto;
+import com.campushub.support.dto.BulkActionDto;
+import com.campushub.support.dto.BulkActionResultDto;
+import com.campushub.support.dto.ChangeFeedPage;
+import com.campushub.support.dto.CreateSupportCoursDto;
+import com.campushub.support.dto.CursorPage;
+import com.campushub.support.dto.ReviewQueueItemDto;
+import com.campushub.support.dto.ReviewQueuePage;
+import com.campushub.support.dto.SearchPage;
+import com.campushub.support.dto.StatGroupDto;
+import com.campushub.support.dto.SupportChangeDto;
+import com.campushub.support.dto.SupportCoursDto;
+import com.campushub.support.dto.SupportCoursFilter;
+import com.campushub.support.dto.SupportCoursSummaryDto;
+import com.campushub.support.dto.SupportInvalidation;
+import com.campushub.support.dto.SupportNotification;
+import com.campushub.support.dto.SupportStatsDto;
+import com.campushub.support.dto.SupportVersion;
+import com.campushub.support.model.NotificationOutbox;
+import com.campushub.support.model.SupportChange;
+import com.campushub.support.model.SupportCours;
+import com.campushub.support.model.SupportStat;
+import com.campushub.support.security.CustomUserDetails;
+import com.campushub.support.security.JwtPrincipal;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image (mvn -Pnative native:compile). Spring AOT derives most of
+ * them (beans, controller signatures, repositories, managed entities); these cover what it cannot see: DTOs
+ * (de)serialized outside controller signatures (AMQP messages and their type id header, the outbox payload, the
+ * user service responses), JPQL constructor expressions, jjwt's implementation classes loaded by name and the
+ * principals read from method security expressions. Ignored on the JVM.
+ */
+@Configuration
+@ImportRuntimeHints(NativeConfig.Hints.class)
+@RegisterReflectionForBinding({
+        SupportNotification.class, SupportInvalidation.class, UserDto.class, SupportVersion.class,
+        SupportCoursDto.class, SupportCoursSummaryDto.class, CreateSupportCoursDto.class, SupportCoursFilter.class,
+        BulkActionDto.class, BulkActionResultDto.class, CursorPage.class, SearchPage.class, ChangeFeedPage.class,
+        SupportChangeDto.class, ReviewQueueItemDto.class, ReviewQueuePage.class, SupportStatsDto.class,
+        StatGroupDto.class})
+public class NativeConfig {
+
+    // jjwt 0.11 instantiates its implementation through Classes.newInstance(String) and finds the Jackson
+    // (de)serializer through ServiceLoader
+    static final List<String> JJWT_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Hibernate reads and writes the fields and calls the no-arg constructors of the entities
+            for (Class<?> entity : List.of(SupportCours.class, SupportChange.class, SupportStat.class, NotificationOutbox.class)) {
+                hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS);
+            }
+            for (String type : JJWT_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+            // authentication.principal.* in @PreAuthorize expressions is evaluated by SpEL through reflection
+            for (Class<?> principal : List.of(JwtPrincipal.class, CustomUserDetails.class)) {
+                hints.reflection().registerType(principal, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+        }
+    }
+}
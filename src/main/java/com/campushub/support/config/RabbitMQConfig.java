@@ -1,7 +1,9 @@
 package com.campushub.support.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
@@ -10,6 +12,7 @@ import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 @Configuration
 public class RabbitMQConfig {
@@ -18,21 +21,49 @@ public class RabbitMQConfig {
     public static final String QUEUE_NAME = "support_notification_queue";
     public static final String ROUTING_KEY = "support.notification";
 
+    // Cache coherence: every replica binds its own anonymous queue to this fanout exchange
+    public static final String CACHE_INVALIDATION_EXCHANGE_NAME = "support_cache_exchange";
+
+    // Declarations are lazy: RabbitAdmin looks them up when it opens the first broker connection, which is
+    // when they are needed, instead of at context refresh. The anonymous queue is resolved by the cache
+    // invalidation listener at startup anyway.
+
     @Bean
+    @Lazy
     public TopicExchange exchange() {
         return new TopicExchange(EXCHANGE_NAME);
     }
 
     @Bean
+    @Lazy
     public Queue queue() {
         return new Queue(QUEUE_NAME);
     }
 
     @Bean
+    @Lazy
     public Binding binding(Queue queue, TopicExchange exchange) {
         return BindingBuilder.bind(queue).to(exchange).with(ROUTING_KEY);
     }
 
+    @Bean
+    @Lazy
+    public FanoutExchange cacheInvalidationExchange() {
+        return new FanoutExchange(CACHE_INVALIDATION_EXCHANGE_NAME);
+    }
+
+    // Exclusive, auto-delete queue named per replica; it disappears with the replica's connection
+    @Bean
+    public Queue supportCacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    @Lazy
+    public Binding cacheInvalidationBinding(Queue supportCacheInvalidationQueue, FanoutExchange cacheInvalidationExchange) {
+        return BindingBuilder.bind(supportCacheInvalidationQueue).to(cacheInvalidationExchange);
+    }
+
     @Bean
     public MessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -1,16 +1,69 @@
 package com.campushub.support.config;
 
+import com.campushub.support.client.UserServiceClient;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.Customizer;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
 
+    // Dedicated, bounded pool for user-service calls. Pool gauges (reactor.netty.connection.provider.*)
+    // and client timers (reactor.netty.http.client.*) are published to Micrometer.
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider userServiceConnectionProvider(
+            @Value("${supports.user-service.pool.max-connections:50}") int maxConnections,
+            @Value("${supports.user-service.pool.pending-acquire-max-count:500}") int pendingAcquireMaxCount,
+            @Value("${supports.user-service.pool.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+            @Value("${supports.user-service.pool.max-idle-time:30s}") Duration maxIdleTime) {
+        return ConnectionProvider.builder("user-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .metrics(true)
+                .build();
+    }
+
     @Bean
     @LoadBalanced
-    public WebClient.Builder webClientBuilder() {
-        return WebClient.builder();
+    public WebClient.Builder webClientBuilder(ConnectionProvider userServiceConnectionProvider,
+                                              @Value("${supports.user-service.connect-timeout:2s}") Duration connectTimeout) {
+        HttpClient httpClient = HttpClient.create(userServiceConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                // Tag by route rather than by raw URI to keep metric cardinality bounded
+                .metrics(true, uri -> uri.contains("/department/") ? "/api/users/department/{department}" : "/api/users/{userId}");
+        return WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+
+    // Only transient failures count towards opening the breaker; a 404 for an unknown user does not.
+    // The time limiter is the overall budget of one call, retries and hedges included.
+    @Bean
+    public Customizer<ReactiveResilience4JCircuitBreakerFactory> userServiceCircuitBreaker(
+            @Value("${supports.user-service.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${supports.user-service.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${supports.user-service.circuit-breaker.wait-in-open-state:30s}") Duration waitInOpenState,
+            @Value("${supports.user-directory.load-timeout:5s}") Duration callBudget) {
+        return factory -> factory.configure(builder -> builder
+                .circuitBreakerConfig(CircuitBreakerConfig.custom()
+                        .slidingWindowSize(slidingWindowSize)
+                        .minimumNumberOfCalls(Math.max(1, slidingWindowSize / 2))
+                        .failureRateThreshold(failureRateThreshold)
+                        .waitDurationInOpenState(waitInOpenState)
+                        .recordException(UserServiceClient::isTransient)
+                        .build())
+                .timeLimiterConfig(TimeLimiterConfig.custom().timeoutDuration(callBudget).build()), UserServiceClient.CIRCUIT_BREAKER);
     }
 }
@@ -1,29 +1,78 @@
 package com.campushub.support.controller;
 
+import com.campushub.support.dto.BulkActionDto;
+import com.campushub.support.dto.BulkActionResultDto;
+import com.campushub.support.dto.ChangeFeedPage;
 import com.campushub.support.dto.CreateSupportCoursDto;
+import com.campushub.support.dto.CursorPage;
+import com.campushub.support.dto.ReviewQueueItemDto;
+import com.campushub.support.dto.ReviewQueuePage;
+import com.campushub.support.dto.SearchPage;
 import com.campushub.support.dto.SupportCoursDto;
+import com.campushub.support.dto.SupportCoursFilter;
+import com.campushub.support.dto.SupportCoursSummaryDto;
+import com.campushub.support.dto.SupportStatsDto;
+import com.campushub.support.dto.SupportVersion;
+import com.campushub.support.model.Niveau;
 import com.campushub.support.model.Statut;
 import com.campushub.support.model.SupportCours;
 import com.campushub.support.service.SupportCoursService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/supports")
 public class SupportCoursController {
 
+    private static final String CSV_HEADER = "id,titre,description,fichierUrl,niveau,matiere,enseignantId,dateDepot,"
+            + "statut,dateValidation,remarqueDoyen,lastModified";
+
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    // Length of SupportCours.lastRequestKey
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
     private final SupportCoursService supportCoursService;
+    private final ObjectMapper objectMapper;
+    // Public reads are identical for every caller, so shared caches (CDN, gateway) may keep them briefly
+    private final CacheControl publicCache;
+    // A bulk action is one transaction holding a row lock per support until commit
+    private final int maxBulkIds;
 
-    public SupportCoursController(SupportCoursService supportCoursService) {
+    public SupportCoursController(SupportCoursService supportCoursService, ObjectMapper objectMapper,
+                                  @Value("${supports.http.max-age:30s}") Duration maxAge,
+                                  @Value("${supports.bulk.max-ids:500}") int maxBulkIds) {
         this.supportCoursService = supportCoursService;
+        this.objectMapper = objectMapper;
+        this.publicCache = CacheControl.maxAge(maxAge).cachePublic();
+        this.maxBulkIds = maxBulkIds;
     }
 
-    private SupportCoursDto convertToDto(SupportCours supportCours) {
+    // Package-private for SupportCoursSerializationBenchmark
+    SupportCoursDto convertToDto(SupportCours supportCours) {
         SupportCoursDto dto = new SupportCoursDto();
         dto.setId(supportCours.getId());
         dto.setTitre(supportCours.getTitre());
@@ -36,6 +85,7 @@ public class SupportCoursController {
         dto.setStatut(supportCours.getStatut());
         dto.setDateValidation(supportCours.getDateValidation());
         dto.setRemarqueDoyen(supportCours.getRemarqueDoyen());
+        dto.setLastModified(supportCours.getLastModified());
         return dto;
     }
 
@@ -55,62 +105,224 @@ public class SupportCoursController {
 
     // Public read-only access for the guest "explore" mode on the landing page.
     // Write/admin endpoints below remain restricted by role.
+    // Keyset-paginated: pass the returned nextCursor as ?cursor= to fetch the following page.
+    // List views get summaries; the full SupportCoursDto is only served by GET /{id}.
     @GetMapping
     @PreAuthorize("permitAll()")
-    public List<SupportCoursDto> getAllSupports() {
-        return supportCoursService.getAllSupports().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public ResponseEntity<CursorPage<SupportCoursSummaryDto>> getAllSupports(SupportCoursFilter filter,
+                                                                             @RequestParam(required = false) Long cursor,
+                                                                             @RequestParam(required = false) Integer size,
+                                                                             WebRequest request) {
+        CursorPage<SupportCoursSummaryDto> page = supportCoursService.findSupports(filter, cursor, size);
+        return conditionalPage(request, page, page.getEtag());
+    }
+
+    // Public full-text search over titre, matiere and description, ranked by relevance.
+    // The last word also matches as a prefix; page is zero-based.
+    @GetMapping("/search")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<SearchPage<SupportCoursSummaryDto>> searchSupports(@RequestParam(name = "q", required = false) String text,
+                                                                             @RequestParam(required = false) Niveau niveau,
+                                                                             @RequestParam(required = false) Statut statut,
+                                                                             @RequestParam(required = false) Integer page,
+                                                                             @RequestParam(required = false) Integer size,
+                                                                             WebRequest request) {
+        SearchPage<SupportCoursSummaryDto> results = supportCoursService.searchSupports(text, niveau, statut, page, size);
+        return conditionalPage(request, results, results.getEtag());
+    }
+
+    // Public change feed for clients syncing the catalog: supports created, updated or deleted (tombstones)
+    // after the ?since= token. Start from 0 for a full sync, then pass each returned nextToken.
+    @GetMapping("/changes")
+    @PreAuthorize("permitAll()")
+    public ChangeFeedPage getChanges(@RequestParam(required = false) Long since,
+                                     @RequestParam(required = false) Integer limit) {
+        return supportCoursService.getChanges(since, limit);
     }
 
     // Public read-only access for the guest "explore" mode (course detail view).
+    // If-None-Match / If-Modified-Since are checked against the version and lastModified columns alone,
+    // so a 304 neither loads the support nor serializes it. Unconditional GETs skip that query and are
+    // answered from the cache.
     @GetMapping("/{id}")
     @PreAuthorize("permitAll()")
-    public ResponseEntity<SupportCoursDto> getSupportById(@PathVariable Long id) {
+    public ResponseEntity<SupportCoursDto> getSupportById(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            Optional<SupportVersion> current = supportCoursService.getSupportVersion(id);
+            if (current.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            Instant lastModified = current.get().getLastModified();
+            if (request.checkNotModified(supportEtag(id, current.get().getVersion()), lastModified != null ? lastModified.toEpochMilli() : -1)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(publicCache).build();
+            }
+        }
+        // Validators of the body actually served, which may be a (just invalidated) cached copy
         return supportCoursService.getSupportById(id)
-                .map(support -> ResponseEntity.ok(convertToDto(support)))
+                .map(support -> {
+                    ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                            .eTag(supportEtag(id, support.getVersion()))
+                            .cacheControl(publicCache);
+                    if (support.getLastModified() != null) {
+                        ok.lastModified(support.getLastModified());
+                    }
+                    return ok.body(convertToDto(support));
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Full catalog export for admin reporting. Rows are streamed from a database cursor and written to the
+    // response one at a time (NDJSON by default, or ?format=csv); nothing is collected in memory.
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public void exportSupports(@RequestParam(defaultValue = "ndjson") String format,
+                               HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"supports." + (csv ? "csv" : "ndjson") + "\"");
+
+        ObjectWriter jsonWriter = objectMapper.writerFor(SupportCoursDto.class);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        try {
+            if (csv) {
+                writer.write(CSV_HEADER + "\n");
+            }
+            supportCoursService.exportSupports(support -> {
+                SupportCoursDto dto = convertToDto(support);
+                try {
+                    writer.write(csv ? toCsvLine(dto) : jsonWriter.writeValueAsString(dto) + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
     // Endpoint for a teacher to get their own supports
     @GetMapping("/enseignant/{enseignantId}")
     @PreAuthorize("hasAuthority('ROLE_TEACHER') or hasAuthority('ROLE_ADMIN')")
-    public List<SupportCoursDto> getSupportsByEnseignant(@PathVariable Long enseignantId) {
-        return supportCoursService.getSupportsByEnseignant(enseignantId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPage<SupportCoursSummaryDto> getSupportsByEnseignant(@PathVariable Long enseignantId,
+                                                                      @RequestParam(required = false) Long cursor,
+                                                                      @RequestParam(required = false) Integer size) {
+        SupportCoursFilter filter = new SupportCoursFilter();
+        filter.setEnseignantId(enseignantId);
+        return supportCoursService.findSupports(filter, cursor, size);
     }
 
     // Endpoint for the dean to see pending supports
     @GetMapping("/pending")
     @PreAuthorize("hasAnyAuthority('ROLE_DEAN', 'ROLE_ADMIN')")
-    public List<SupportCoursDto> getPendingSupports() {
-        return supportCoursService.getSupportsByStatut(Statut.SOUMIS).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public CursorPage<SupportCoursSummaryDto> getPendingSupports(@RequestParam(required = false) Long cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        SupportCoursFilter filter = new SupportCoursFilter();
+        filter.setStatut(Statut.SOUMIS);
+        return supportCoursService.findSupports(filter, cursor, size);
+    }
+
+    // Review queue: submitted supports of the dean's department (admins: of the requested one, or all), oldest
+    // first. With available=true, supports claimed by another reviewer are left out.
+    @GetMapping("/review-queue")
+    @PreAuthorize("hasAnyAuthority('ROLE_DEAN', 'ROLE_ADMIN')")
+    public ReviewQueuePage getReviewQueue(@RequestParam(required = false) String department,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size,
+                                          @RequestParam(defaultValue = "false") boolean available) {
+        return supportCoursService.getReviewQueue(department, cursor, size, available);
+    }
+
+    // Claims the oldest available support of the queue; 204 when there is none left
+    @PostMapping("/review-queue/claim")
+    @PreAuthorize("hasAnyAuthority('ROLE_DEAN', 'ROLE_ADMIN')")
+    public ResponseEntity<ReviewQueueItemDto> claimNextSupport(@RequestParam(required = false) String department) {
+        return supportCoursService.claimNextSupport(department)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/{id}/claim")
+    @PreAuthorize("hasAnyAuthority('ROLE_DEAN', 'ROLE_ADMIN')")
+    public ResponseEntity<ReviewQueueItemDto> claimSupport(@PathVariable Long id) {
+        return supportCoursService.claimSupport(id)
+                .map(ResponseEntity::ok)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Support de cours non soumis, hors de votre département ou déjà pris en charge"));
+    }
+
+    @DeleteMapping("/{id}/claim")
+    @PreAuthorize("hasAnyAuthority('ROLE_DEAN', 'ROLE_ADMIN')")
+    public ResponseEntity<Void> releaseClaim(@PathVariable Long id) {
+        supportCoursService.releaseClaim(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Dashboard counts per statut (overall, per niveau, matiere, enseignant and department) and average review delay,
+    // read from the maintained counters rather than counted over the supports
+    @GetMapping("/stats")
+    @PreAuthorize("hasAnyAuthority('ROLE_DEAN', 'ROLE_ADMIN')")
+    public SupportStatsDto getStatistics() {
+        return supportCoursService.getStatistics();
     }
 
+    // Workflow endpoints accept an optional Idempotency-Key header: a retry carrying the key of the request that
+    // made the support's last transition is answered with the current state instead of being applied again.
+    // A transition the current status does not allow, or that lost a race with another one, answers 409.
+
     // Endpoint for a teacher to submit their draft
     @PostMapping("/{id}/submit")
     @PreAuthorize("hasAuthority('ROLE_TEACHER')")
-    public ResponseEntity<SupportCoursDto> submitSupport(@PathVariable Long id) {
-        return ResponseEntity.ok(convertToDto(supportCoursService.submitSupport(id)));
+    public ResponseEntity<SupportCoursDto> submitSupport(@PathVariable Long id,
+                                                         @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(convertToDto(supportCoursService.submitSupport(id, checkIdempotencyKey(idempotencyKey))));
     }
 
     // Endpoint for the dean to validate a support
     @PostMapping("/{id}/validate")
     @PreAuthorize("hasAnyAuthority('ROLE_DEAN', 'ROLE_ADMIN')")
-    public ResponseEntity<SupportCoursDto> validateSupport(@PathVariable Long id, @RequestBody(required = false) String remarque) {
-        return ResponseEntity.ok(convertToDto(supportCoursService.validateSupport(id, remarque)));
+    public ResponseEntity<SupportCoursDto> validateSupport(@PathVariable Long id, @RequestBody(required = false) String remarque,
+                                                           @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(convertToDto(supportCoursService.validateSupport(id, remarque, checkIdempotencyKey(idempotencyKey))));
     }
 
     // Endpoint for the dean to reject a support
     @PostMapping("/{id}/reject")
     @PreAuthorize("hasAnyAuthority('ROLE_DEAN', 'ROLE_ADMIN')")
-    public ResponseEntity<SupportCoursDto> rejectSupport(@PathVariable Long id, @RequestBody String remarque) {
-        return ResponseEntity.ok(convertToDto(supportCoursService.rejectSupport(id, remarque)));
+    public ResponseEntity<SupportCoursDto> rejectSupport(@PathVariable Long id, @RequestBody String remarque,
+                                                         @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return ResponseEntity.ok(convertToDto(supportCoursService.rejectSupport(id, remarque, checkIdempotencyKey(idempotencyKey))));
     }
     
+    // Bulk variants of submit/validate/reject: one result per distinct id (OK, NOT_FOUND or INVALID_TRANSITION)
+    @PostMapping("/bulk/submit")
+    @PreAuthorize("hasAuthority('ROLE_TEACHER')")
+    public List<BulkActionResultDto> submitSupports(@RequestBody BulkActionDto bulkDto,
+                                                    @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return supportCoursService.submitSupports(checkBulkIds(bulkDto.getIds()), checkIdempotencyKey(idempotencyKey));
+    }
+
+    @PostMapping("/bulk/validate")
+    @PreAuthorize("hasAnyAuthority('ROLE_DEAN', 'ROLE_ADMIN')")
+    public List<BulkActionResultDto> validateSupports(@RequestBody BulkActionDto bulkDto,
+                                                      @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return supportCoursService.validateSupports(checkBulkIds(bulkDto.getIds()), bulkDto.getRemarque(), checkIdempotencyKey(idempotencyKey));
+    }
+
+    @PostMapping("/bulk/reject")
+    @PreAuthorize("hasAnyAuthority('ROLE_DEAN', 'ROLE_ADMIN')")
+    public List<BulkActionResultDto> rejectSupports(@RequestBody BulkActionDto bulkDto,
+                                                    @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return supportCoursService.rejectSupports(checkBulkIds(bulkDto.getIds()), bulkDto.getRemarque(), checkIdempotencyKey(idempotencyKey));
+    }
+
+    // Another request changed the support between our read and our write (@Version check at flush)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConcurrentUpdate(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Support de cours modifié entre-temps, veuillez réessayer");
+    }
+
     // Endpoint for a teacher to delete a draft
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
@@ -119,4 +331,54 @@ public class SupportCoursController {
         supportCoursService.deleteSupport(id);
         return ResponseEntity.noContent().build();
     }
+
+    private List<Long> checkBulkIds(List<Long> ids) {
+        if (ids != null && ids.size() > maxBulkIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxBulkIds + " ids per bulk action");
+        }
+        return ids;
+    }
+
+    private static String checkIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY + " must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        return idempotencyKey;
+    }
+
+    private static String toCsvLine(SupportCoursDto dto) {
+        return Stream.of(dto.getId(), dto.getTitre(), dto.getDescription(), dto.getFichierUrl(), dto.getNiveau(),
+                        dto.getMatiere(), dto.getEnseignantId(), dto.getDateDepot(), dto.getStatut(),
+                        dto.getDateValidation(), dto.getRemarqueDoyen(), dto.getLastModified())
+                .map(SupportCoursController::csvField)
+                .collect(Collectors.joining(",", "", "\n"));
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break, doubling embedded quotes
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    // Strong validator: a support's representation only changes when its version does
+    private static String supportEtag(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    // Pages come from the page cache or the search index and carry their digest (PageDigest), so the
+    // validator is compared before the page is serialized
+    private <T> ResponseEntity<T> conditionalPage(WebRequest request, T page, String digest) {
+        String etag = "W/\"" + digest + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(publicCache).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(publicCache).body(page);
+    }
 }
@@ -0,0 +1,11 @@
+package com.campushub.support.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkActionDto {
+    private List<Long> ids;
+    private String remarque; // optional, applied to every support for validate/reject
+}
@@ -0,0 +1,23 @@
+package com.campushub.support.dto;
+
+import com.campushub.support.model.Statut;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of a bulk workflow action for one requested id
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkActionResultDto {
+
+    public enum Outcome {
+        OK,
+        NOT_FOUND,
+        INVALID_TRANSITION
+    }
+
+    private Long id;
+    private Outcome outcome;
+    private Statut statut; // current status; null when not found
+}
@@ -0,0 +1,17 @@
+package com.campushub.support.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One page of the change feed; pass nextToken as ?since= for the following page or the next sync
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedPage {
+    private List<SupportChangeDto> items;
+    private long nextToken;
+    private boolean hasMore; // true when more changes are available right away
+}
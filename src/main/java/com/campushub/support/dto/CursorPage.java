@@ -0,0 +1,19 @@
+package com.campushub.support.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private Long nextCursor; // null when there is no further page
+    private int size;
+    @JsonIgnore
+    private String etag; // PageDigest of the page, compared by conditional GETs
+}
@@ -0,0 +1,49 @@
+package com.campushub.support.dto;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Validator of a page of summaries: a SHA-256 digest of every field the page serializes, computed once when
+ * the page is built (and cached with it), so that a conditional GET is answered without serializing the page.
+ */
+public final class PageDigest {
+
+    private PageDigest() {
+    }
+
+    public static String of(List<SupportCoursSummaryDto> items, Object... pageFields) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JRE provides SHA-256
+        }
+        for (Object field : pageFields) {
+            update(digest, field);
+        }
+        for (SupportCoursSummaryDto item : items) {
+            update(digest, item.getId());
+            update(digest, item.getTitre());
+            update(digest, item.getFichierUrl());
+            update(digest, item.getNiveau());
+            update(digest, item.getMatiere());
+            update(digest, item.getEnseignantId());
+            update(digest, item.getDateDepot());
+            update(digest, item.getStatut());
+            update(digest, item.getDateValidation());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Length-prefixed (-1 for null), so that neighbouring values cannot run into each other
+    private static void update(MessageDigest digest, Object value) {
+        byte[] bytes = value == null ? new byte[0] : value.toString().getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(value == null ? -1 : bytes.length).array());
+        digest.update(bytes);
+    }
+}
@@ -0,0 +1,25 @@
+package com.campushub.support.dto;
+
+import com.campushub.support.model.Niveau;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// A support waiting for review. The field order is the constructor order used by the repository's projection.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewQueueItemDto {
+    private Long id;
+    private String titre;
+    private Niveau niveau;
+    private String matiere;
+    private Long enseignantId;
+    private String department;
+    private LocalDate dateDepot;
+    private Long claimedBy; // null when nobody is reviewing it (or the claim has expired, see claimedAt)
+    private Instant claimedAt;
+}
@@ -0,0 +1,16 @@
+package com.campushub.support.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewQueuePage {
+    private List<ReviewQueueItemDto> items;
+    private String nextCursor; // opaque "dateDepot/id" position; null when there is no further page
+    private int size;
+}
@@ -0,0 +1,21 @@
+package com.campushub.support.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One page of ranked search results (offset paging, page is zero-based)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchPage<T> {
+    private List<T> items;
+    private long totalHits; // a lower bound once more than 1000 documents match
+    private int page;
+    private int size;
+    @JsonIgnore
+    private String etag; // PageDigest of the page, compared by conditional GETs
+}
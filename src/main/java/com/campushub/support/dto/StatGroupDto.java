@@ -0,0 +1,22 @@
+package com.campushub.support.dto;
+
+import com.campushub.support.model.Statut;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Counts for one value of a dimension (a niveau, a matiere, an enseignant id, a department; empty for the overall group)
+@Data
+@NoArgsConstructor
+public class StatGroupDto {
+    private String value;
+    private long total;
+    private Map<Statut, Long> byStatut = new EnumMap<>(Statut.class);
+    private Double averageReviewDays; // dateDepot -> dateValidation of validated supports; null when none
+
+    public StatGroupDto(String value) {
+        this.value = value;
+    }
+}
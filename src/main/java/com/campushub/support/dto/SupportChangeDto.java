@@ -0,0 +1,16 @@
+package com.campushub.support.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Current state of a support that changed after the requested position; support is null for a tombstone
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupportChangeDto {
+    private Long position;
+    private Long supportId;
+    private boolean deleted;
+    private SupportCoursSummaryDto support;
+}
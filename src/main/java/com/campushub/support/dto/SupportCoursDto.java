@@ -4,6 +4,7 @@ import com.campushub.support.model.Niveau;
 import com.campushub.support.model.Statut;
 import lombok.Data;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Data
@@ -19,4 +20,5 @@ public class SupportCoursDto {
     private Statut statut;
     private LocalDate dateValidation;
     private String remarqueDoyen;
+    private Instant lastModified;
 }
@@ -0,0 +1,18 @@
+package com.campushub.support.dto;
+
+import com.campushub.support.model.Niveau;
+import com.campushub.support.model.Statut;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Optional criteria for the paginated listing; null fields are ignored
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupportCoursFilter {
+    private Niveau niveau;
+    private String matiere;
+    private Statut statut;
+    private Long enseignantId;
+}
@@ -0,0 +1,26 @@
+package com.campushub.support.dto;
+
+import com.campushub.support.model.Niveau;
+import com.campushub.support.model.Statut;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// List-card view of a support: scalar columns only, never the @Lob description/remarqueDoyen.
+// The field order is the constructor order used by the repository's constructor projection.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupportCoursSummaryDto {
+    private Long id;
+    private String titre;
+    private String fichierUrl;
+    private Niveau niveau;
+    private String matiere;
+    private Long enseignantId;
+    private LocalDate dateDepot;
+    private Statut statut;
+    private LocalDate dateValidation;
+}
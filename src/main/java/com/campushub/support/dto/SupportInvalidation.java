@@ -0,0 +1,17 @@
+package com.campushub.support.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Broadcast on the cache invalidation fanout exchange after a support change is committed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupportInvalidation implements Serializable {
+    private Long supportId;
+    private Long version; // null when the support was deleted
+    private String origin; // instance id of the publishing replica
+}
@@ -0,0 +1,18 @@
+package com.campushub.support.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupportStatsDto {
+    private StatGroupDto overall;
+    private List<StatGroupDto> byNiveau;
+    private List<StatGroupDto> byMatiere;
+    private List<StatGroupDto> byEnseignant;
+    private List<StatGroupDto> byDepartment; // "" groups supports not submitted yet (department unknown)
+}
@@ -0,0 +1,16 @@
+package com.campushub.support.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// HTTP validators of a support (ETag from version, Last-Modified from lastModified), read without the entity body
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupportVersion {
+    private Long version;
+    private Instant lastModified;
+}
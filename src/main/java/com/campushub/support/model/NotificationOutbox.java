@@ -0,0 +1,66 @@
+package com.campushub.support.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Notification recorded in the same transaction as the SupportCours change, relayed to the broker afterwards
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_outbox_pending", columnList = "deliveredAt, leaseUntil, id")
+})
+@Data
+@NoArgsConstructor
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long supportId;
+
+    @Column(nullable = false)
+    private Long enseignantId;
+
+    // SupportNotification as JSON, recipients not yet resolved
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(nullable = false)
+    private String audience;
+
+    private String operation;
+
+    // Caller's JWT, needed to resolve recipients against campushub-user-service. Stored in plaintext until the
+    // row is delivered or abandoned: the table must be as protected as the tokens themselves (expiry bounds the risk)
+    @Column(length = 4096)
+    private String token;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant deliveredAt;
+
+    // Relay lease: the claim currently delivering the row, until leaseUntil. After a failed attempt leaseUntil
+    // holds the row back until its next retry.
+    private String leaseOwner;
+
+    private Instant leaseUntil;
+
+    // Failed deliveries so far, drives the retry backoff
+    private int attempts;
+
+    // Set when the row can never be delivered (unreadable payload); it is kept for inspection only
+    private Instant abandonedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+}
@@ -5,5 +5,14 @@ public enum Statut {
     SOUMIS,
     EN_ATTENTE_DE_VALIDATION,
     VALIDÉ,
-    REJETÉ
+    REJETÉ;
+
+    // Workflow: a draft (or a rejected support) is submitted, then validated or rejected by a dean
+    public boolean canTransitionTo(Statut target) {
+        return switch (target) {
+            case SOUMIS -> this == BROUILLON || this == REJETÉ;
+            case VALIDÉ, REJETÉ -> this == SOUMIS || this == EN_ATTENTE_DE_VALIDATION;
+            default -> false;
+        };
+    }
 }
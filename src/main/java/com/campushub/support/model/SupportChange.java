@@ -0,0 +1,38 @@
+package com.campushub.support.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// Change journal entry, written in the transaction of the SupportCours change; the id is the feed position
+@Entity
+@Table(name = "support_change", indexes = {
+        @Index(name = "idx_support_change_support", columnList = "supportId, id")
+})
+@Data
+@NoArgsConstructor
+public class SupportChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long supportId;
+
+    // Tombstone: the support was deleted
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (changedAt == null) {
+            changedAt = Instant.now();
+        }
+    }
+}
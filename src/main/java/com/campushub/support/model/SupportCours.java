@@ -5,10 +5,19 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "support_cours")
+@Table(name = "support_cours", indexes = {
+        // Composite (filter, id) indexes backing the keyset-paginated listing
+        @Index(name = "idx_support_statut_id", columnList = "statut, id"),
+        @Index(name = "idx_support_niveau_id", columnList = "niveau, id"),
+        @Index(name = "idx_support_matiere_id", columnList = "matiere, id"),
+        @Index(name = "idx_support_enseignant_id", columnList = "enseignantId, id"),
+        // Deans' review queue: waiting supports of one department, oldest first
+        @Index(name = "idx_support_review_queue", columnList = "statut, department, dateDepot, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -46,8 +55,31 @@ public class SupportCours {
     @Lob
     private String remarqueDoyen;
 
+    // The default fills rows that predate the column when ddl-auto adds it; SupportVersionBackfill fixes the others
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Time of the last write (set on flush), for HTTP validators and sync clients
+    private Instant lastModified;
+
+    // Idempotency-Key of the request behind the last workflow transition. Read with the row the transition
+    // loads anyway, so recognising a retried request costs no extra query.
+    @Column(length = 100)
+    private String lastRequestKey;
+
+    // Department of the teacher, captured when the support is submitted; scopes the deans' review queue
+    @Column(length = 100)
+    private String department;
+
+    // Review claim: the dean looking at the support, until claimedAt + supports.review.claim-ttl
+    private Long claimedBy;
+
+    private Instant claimedAt;
+
     @PrePersist
     protected void onCreate() {
+        lastModified = Instant.now();
         if (dateDepot == null) {
             dateDepot = LocalDate.now();
         }
@@ -55,4 +87,9 @@ public class SupportCours {
             statut = Statut.BROUILLON;
         }
     }
+
+    @PreUpdate
+    protected void onUpdate() {
+        lastModified = Instant.now();
+    }
 }
@@ -0,0 +1,52 @@
+package com.campushub.support.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Denormalized dashboard counter: number of supports with a given statut for one value of a dimension
+// (ALL has a single, empty value). Maintained by SupportStatistics in the transaction of each write.
+@Entity
+@Table(name = "support_stat", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_support_stat_key", columnNames = {"dimension", "dimensionValue", "statut"})
+})
+@Data
+@NoArgsConstructor
+public class SupportStat {
+
+    public enum Dimension {
+        ALL,
+        NIVEAU,
+        MATIERE,
+        ENSEIGNANT,
+        DEPARTMENT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Dimension dimension;
+
+    @Column(nullable = false)
+    private String dimensionValue;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Statut statut;
+
+    @Column(nullable = false)
+    private long supportCount;
+
+    // Sum of the dateDepot -> dateValidation delays in days; only VALIDÉ rows carry it
+    @Column(nullable = false)
+    private long reviewDays;
+
+    public SupportStat(Dimension dimension, String dimensionValue, Statut statut) {
+        this.dimension = dimension;
+        this.dimensionValue = dimensionValue;
+        this.statut = statut;
+    }
+}
@@ -0,0 +1,65 @@
+package com.campushub.support.repository;
+
+import com.campushub.support.model.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+// Internal table (holds caller tokens): never exported by Spring Data REST
+@Repository
+@RepositoryRestResource(exported = false)
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Abandoned rows stay in the table for inspection and are no longer picked up
+    @Query("select o.id from NotificationOutbox o where o.deliveredAt is null and o.abandonedAt is null "
+            + "and (o.leaseUntil is null or o.leaseUntil < :now) order by o.id")
+    List<Long> findClaimableIds(@Param("now") Instant now, Pageable pageable);
+
+    // Only rows whose lease is free (or expired) are taken, so concurrent relays never share a row
+    @Modifying
+    @Query("update NotificationOutbox o set o.leaseOwner = :owner, o.leaseUntil = :leaseUntil "
+            + "where o.id in :ids and o.deliveredAt is null and o.abandonedAt is null "
+            + "and (o.leaseUntil is null or o.leaseUntil < :now)")
+    int claim(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+              @Param("leaseUntil") Instant leaseUntil, @Param("now") Instant now);
+
+    List<NotificationOutbox> findByIdInAndLeaseOwnerOrderByIdAsc(Collection<Long> ids, String leaseOwner);
+
+    // Extends the lease of the rows still held by the claim, before publishing them
+    @Modifying
+    @Query("update NotificationOutbox o set o.leaseUntil = :leaseUntil "
+            + "where o.id in :ids and o.leaseOwner = :owner and o.deliveredAt is null")
+    int renewLease(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("leaseUntil") Instant leaseUntil);
+
+    @Query("select o.id from NotificationOutbox o where o.id in :ids and o.leaseOwner = :owner")
+    List<Long> findLeasedIds(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+    // The owner check leaves alone rows whose lease expired and that another claim has taken over
+    @Modifying
+    @Query("update NotificationOutbox o set o.deliveredAt = :now, o.token = null, o.leaseUntil = null "
+            + "where o.id in :ids and o.leaseOwner = :owner")
+    int markDelivered(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("now") Instant now);
+
+    // Failed delivery: count the attempt and hold the row back until retryAt
+    @Modifying
+    @Query("update NotificationOutbox o set o.attempts = o.attempts + 1, o.leaseOwner = null, o.leaseUntil = :retryAt "
+            + "where o.id in :ids and o.leaseOwner = :owner")
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("retryAt") Instant retryAt);
+
+    @Modifying
+    @Query("update NotificationOutbox o set o.attempts = o.attempts + 1, o.abandonedAt = :now, o.token = null, "
+            + "o.leaseOwner = null, o.leaseUntil = null where o.id in :ids and o.leaseOwner = :owner")
+    int markAbandoned(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from NotificationOutbox o where o.deliveredAt < :cutoff")
+    int deleteDeliveredBefore(@Param("cutoff") Instant cutoff);
+}
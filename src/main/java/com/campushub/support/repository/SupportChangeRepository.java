@@ -0,0 +1,38 @@
+package com.campushub.support.repository;
+
+import com.campushub.support.model.SupportChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+// Internal journal behind GET /api/supports/changes: never exported by Spring Data REST
+@Repository
+@RepositoryRestResource(exported = false)
+public interface SupportChangeRepository extends JpaRepository<SupportChange, Long> {
+
+    List<SupportChange> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select max(c.id) from SupportChange c")
+    Long findHead();
+
+    // Entries followed by a newer entry for the same support; a reader always sees that newer one,
+    // so the journal can be compacted down to one entry per support
+    @Query("select c.id from SupportChange c where c.changedAt < :cutoff and exists "
+            + "(select n.id from SupportChange n where n.supportId = c.supportId and n.id > c.id) order by c.id")
+    List<Long> findSupersededIds(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    // Adds an entry for every support that has none (written before the journal existed, or behind the
+    // service's back), so that a sync from position 0 sees the whole catalog. Idempotent: safe on every start
+    // and while other replicas already write to the journal.
+    @Modifying
+    @Query("insert into SupportChange (supportId, deleted, changedAt) select s.id, false, :now from SupportCours s "
+            + "where not exists (select c.id from SupportChange c where c.supportId = s.id)")
+    int backfill(@Param("now") Instant now);
+}
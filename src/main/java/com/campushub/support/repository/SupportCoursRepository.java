@@ -1,14 +1,70 @@
 package com.campushub.support.repository;
 
+import com.campushub.support.dto.ReviewQueueItemDto;
+import com.campushub.support.dto.SupportVersion;
 import com.campushub.support.model.Statut;
 import com.campushub.support.model.SupportCours;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface SupportCoursRepository extends JpaRepository<SupportCours, Long> {
+public interface SupportCoursRepository extends JpaRepository<SupportCours, Long>, SupportCoursRepositoryCustom {
     List<SupportCours> findByEnseignantId(Long enseignantId);
     List<SupportCours> findByStatut(Statut statut);
+
+    // Primary-key lookup of the two scalar columns behind conditional GETs; the @Lob columns are not read
+    @Query("select new com.campushub.support.dto.SupportVersion(s.version, s.lastModified) from SupportCours s where s.id = :id")
+    Optional<SupportVersion> findVersionById(@Param("id") Long id);
+
+    // One scan for the statistics reconciliation: counts and review delays per combination of the counted
+    // dimensions, rolled up by SupportStatistics
+    @Query("select s.statut, s.niveau, s.matiere, s.enseignantId, s.department, count(s), "
+            + "sum(case when s.statut = :validated and s.dateValidation is not null "
+            + "then ((s.dateValidation - s.dateDepot) by day) else 0 end) "
+            + "from SupportCours s group by s.statut, s.niveau, s.matiere, s.enseignantId, s.department")
+    List<Object[]> countByStatutNiveauMatiereEnseignantDepartment(@Param("validated") Statut validated);
+
+    @Query("select new com.campushub.support.dto.ReviewQueueItemDto(s.id, s.titre, s.niveau, s.matiere, s.enseignantId, "
+            + "s.department, s.dateDepot, s.claimedBy, s.claimedAt) from SupportCours s where s.id = :id")
+    Optional<ReviewQueueItemDto> findReviewQueueItem(@Param("id") Long id);
+
+    // Review claims are single conditional UPDATEs: a claim only lands on a waiting support that nobody else
+    // holds (or whose claim has expired), so concurrent deans never wait on each other nor overwrite a claim.
+    // A null department allows any department. Claims do not bump @Version: they are not content changes.
+    @Modifying
+    @Query("update SupportCours s set s.claimedBy = :reviewer, s.claimedAt = :now "
+            + "where s.id = :id and s.statut = :statut and (:department is null or s.department = :department) "
+            + "and (s.claimedBy is null or s.claimedBy = :reviewer or s.claimedAt < :claimedSince)")
+    int claim(@Param("id") Long id, @Param("statut") Statut statut, @Param("department") String department,
+              @Param("reviewer") Long reviewer, @Param("now") Instant now, @Param("claimedSince") Instant claimedSince);
+
+    @Modifying
+    @Query("update SupportCours s set s.claimedBy = null, s.claimedAt = null where s.id = :id and s.claimedBy = :reviewer")
+    int releaseClaim(@Param("id") Long id, @Param("reviewer") Long reviewer);
+
+    // Rows left with a NULL version by a schema update that added the column without a default
+    @Modifying
+    @Query("update SupportCours s set s.version = 0 where s.version is null")
+    int backfillMissingVersions();
+
+    // Authors of the given supports, read before a submission so that their departments are resolved
+    // before its transaction opens
+    @Query("select distinct s.enseignantId from SupportCours s where s.id in :ids")
+    List<Long> findEnseignantIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset batches in id order, used to (re)build the search index
+    List<SupportCours> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Same batches, primary key only, used to rebuild SupportIdFilter
+    @Query("select s.id from SupportCours s where s.id > :after order by s.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Pageable pageable);
 }
@@ -0,0 +1,34 @@
+package com.campushub.support.repository;
+
+import com.campushub.support.dto.ReviewQueueItemDto;
+import com.campushub.support.dto.SupportCoursFilter;
+import com.campushub.support.dto.SupportCoursSummaryDto;
+import com.campushub.support.model.Statut;
+import com.campushub.support.model.SupportCours;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface SupportCoursRepositoryCustom {
+    // Keyset page ordered by id descending; only supports with id < cursor are returned when cursor is set.
+    // Selects the summary columns only, the @Lob columns are never read.
+    List<SupportCoursSummaryDto> findSummaryPage(SupportCoursFilter filter, Long cursor, int limit);
+
+    // Summaries of the given supports, in no particular order; missing ids are skipped
+    List<SupportCoursSummaryDto> findSummariesByIds(Collection<Long> ids);
+
+    // Review queue page of supports with the given statut, oldest first (dateDepot, then id), strictly after
+    // (afterDate, afterId) when set. A null department spans every department. With availableTo set, supports
+    // claimed by another reviewer since claimedSince are left out.
+    List<ReviewQueueItemDto> findReviewQueuePage(Statut statut, String department, LocalDate afterDate, Long afterId,
+                                                 Long availableTo, Instant claimedSince, int limit);
+
+    // Forward-only cursor over every support in id order, fetched fetchSize rows at a time (row by row on
+    // MySQL without useCursorFetch=true, where a fetch size would be ignored). Entities are
+    // read-only and detached as they are handed out, so the persistence context does not grow.
+    // Must be consumed, and closed, inside a transaction.
+    Stream<SupportCours> streamAll(int fetchSize);
+}
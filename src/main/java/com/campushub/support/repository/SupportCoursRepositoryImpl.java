@@ -0,0 +1,167 @@
+package com.campushub.support.repository;
+
+import com.campushub.support.dto.ReviewQueueItemDto;
+import com.campushub.support.dto.SupportCoursFilter;
+import com.campushub.support.dto.SupportCoursSummaryDto;
+import com.campushub.support.model.Statut;
+import com.campushub.support.model.SupportCours;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class SupportCoursRepositoryImpl implements SupportCoursRepositoryCustom {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupportCoursRepositoryImpl.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Connector/J reads the whole result set into memory whatever the fetch size, unless the URL enables
+    // server-side cursors (useCursorFetch=true). Without them, only Integer.MIN_VALUE streams row by row.
+    private final boolean mysqlRowStreaming;
+
+    public SupportCoursRepositoryImpl(DataSource dataSource) {
+        boolean rowStreaming;
+        try {
+            rowStreaming = JdbcUtils.extractDatabaseMetaData(dataSource, metaData ->
+                    metaData.getURL().startsWith("jdbc:mysql:") && !metaData.getURL().contains("useCursorFetch=true"));
+        } catch (MetaDataAccessException e) {
+            logger.warn("Could not read the datasource metadata, exports use the configured fetch size: {}", e.getMessage());
+            rowStreaming = false;
+        }
+        this.mysqlRowStreaming = rowStreaming;
+        if (rowStreaming) {
+            logger.info("MySQL URL without useCursorFetch=true: exports stream row by row instead of by fetch size");
+        }
+    }
+
+    @Override
+    public List<SupportCoursSummaryDto> findSummaryPage(SupportCoursFilter filter, Long cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SupportCoursSummaryDto> query = cb.createQuery(SupportCoursSummaryDto.class);
+        Root<SupportCours> root = query.from(SupportCours.class);
+
+        // Only the criteria actually supplied end up in the WHERE clause so that
+        // MySQL can pick the matching (column, id) composite index.
+        List<Predicate> predicates = new ArrayList<>();
+        if (cursor != null) {
+            predicates.add(cb.lessThan(root.get("id"), cursor));
+        }
+        if (filter != null) {
+            if (filter.getNiveau() != null) {
+                predicates.add(cb.equal(root.get("niveau"), filter.getNiveau()));
+            }
+            if (filter.getMatiere() != null) {
+                predicates.add(cb.equal(root.get("matiere"), filter.getMatiere()));
+            }
+            if (filter.getStatut() != null) {
+                predicates.add(cb.equal(root.get("statut"), filter.getStatut()));
+            }
+            if (filter.getEnseignantId() != null) {
+                predicates.add(cb.equal(root.get("enseignantId"), filter.getEnseignantId()));
+            }
+        }
+
+        query.select(summary(cb, root))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<SupportCoursSummaryDto> findSummariesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SupportCoursSummaryDto> query = cb.createQuery(SupportCoursSummaryDto.class);
+        Root<SupportCours> root = query.from(SupportCours.class);
+        query.select(summary(cb, root)).where(root.get("id").in(ids));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<ReviewQueueItemDto> findReviewQueuePage(Statut statut, String department, LocalDate afterDate, Long afterId,
+                                                        Long availableTo, Instant claimedSince, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReviewQueueItemDto> query = cb.createQuery(ReviewQueueItemDto.class);
+        Root<SupportCours> root = query.from(SupportCours.class);
+
+        // (statut, department) equality then the (dateDepot, id) keyset: a range scan of idx_support_review_queue
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("statut"), statut));
+        if (department != null) {
+            predicates.add(cb.equal(root.get("department"), department));
+        }
+        if (afterDate != null && afterId != null) {
+            predicates.add(cb.or(
+                    cb.greaterThan(root.get("dateDepot"), afterDate),
+                    cb.and(cb.equal(root.get("dateDepot"), afterDate), cb.greaterThan(root.get("id"), afterId))));
+        }
+        if (availableTo != null) {
+            predicates.add(cb.or(
+                    cb.isNull(root.get("claimedBy")),
+                    cb.equal(root.get("claimedBy"), availableTo),
+                    cb.lessThan(root.get("claimedAt"), claimedSince)));
+        }
+
+        query.select(cb.construct(ReviewQueueItemDto.class,
+                        root.get("id"),
+                        root.get("titre"),
+                        root.get("niveau"),
+                        root.get("matiere"),
+                        root.get("enseignantId"),
+                        root.get("department"),
+                        root.get("dateDepot"),
+                        root.get("claimedBy"),
+                        root.get("claimedAt")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("dateDepot")), cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<SupportCours> streamAll(int fetchSize) {
+        return entityManager.createQuery("select s from SupportCours s order by s.id", SupportCours.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, mysqlRowStreaming ? Integer.MIN_VALUE : fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .peek(entityManager::detach);
+    }
+
+    private static CompoundSelection<SupportCoursSummaryDto> summary(CriteriaBuilder cb, Root<SupportCours> root) {
+        return cb.construct(SupportCoursSummaryDto.class,
+                root.get("id"),
+                root.get("titre"),
+                root.get("fichierUrl"),
+                root.get("niveau"),
+                root.get("matiere"),
+                root.get("enseignantId"),
+                root.get("dateDepot"),
+                root.get("statut"),
+                root.get("dateValidation"));
+    }
+}
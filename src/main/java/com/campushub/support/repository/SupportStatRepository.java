@@ -0,0 +1,26 @@
+package com.campushub.support.repository;
+
+import com.campushub.support.model.SupportStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.stereotype.Repository;
+
+// Counters behind GET /api/supports/stats: never exported by Spring Data REST
+@Repository
+@RepositoryRestResource(exported = false)
+public interface SupportStatRepository extends JpaRepository<SupportStat, Long> {
+
+    // Relative upsert: concurrent transactions add their deltas instead of overwriting each other, and the
+    // first write of a key creates its row on the caller's connection (MySQL syntax; the tests run H2 in
+    // MySQL mode). Two writers creating the same row serialize on the unique key instead of failing.
+    @Modifying
+    @Query(value = "insert into support_stat (dimension, dimension_value, statut, support_count, review_days) "
+            + "values (:dimension, :dimensionValue, :statut, :count, :reviewDays) "
+            + "on duplicate key update support_count = support_count + :count, review_days = review_days + :reviewDays",
+            nativeQuery = true)
+    int increment(@Param("dimension") String dimension, @Param("dimensionValue") String dimensionValue,
+                  @Param("statut") String statut, @Param("count") long count, @Param("reviewDays") long reviewDays);
+}
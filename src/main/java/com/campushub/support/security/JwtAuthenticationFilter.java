@@ -33,18 +33,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && jwtService.validateToken(jwt)) {
-                String username = jwtService.getUsernameFromJWT(jwt);
-                
+            JwtPrincipal principal = StringUtils.hasText(jwt) ? jwtService.parse(jwt).orElse(null) : null;
+            if (principal != null) {
                 // For a resource server, we primarily care about the authorities/roles.
                 // We don't need to load the full UserDetails from a DB here.
                 // Create a CustomUserDetails object from the token's claims.
-                Long userId = jwtService.getIdFromJWT(jwt);
                 UserDetails userDetails = new CustomUserDetails(
-                        userId,
-                        username,
+                        principal.id(),
+                        principal.username(),
                         "", // Password is not needed/available in resource server JWT validation
-                        jwtService.getAuthoritiesFromJWT(jwt),
+                        principal.authorities(),
                         jwt
                 );
 
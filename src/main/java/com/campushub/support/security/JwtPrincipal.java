@@ -0,0 +1,17 @@
+package com.campushub.support.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Claims of a verified token, extracted once by JwtService. Immutable so that it can be shared
+ * between requests carrying the same bearer token.
+ */
+public record JwtPrincipal(Long id, String username, List<GrantedAuthority> authorities, Instant expiresAt) {
+
+    public JwtPrincipal {
+        authorities = List.copyOf(authorities);
+    }
+}
@@ -1,58 +1,116 @@
 package com.campushub.support.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.xml.bind.DatatypeConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+/**
+ * Verifies bearer tokens. The signing key and parser are built once; a verified token is parsed a single
+ * time into a JwtPrincipal, which is then cached under the SHA-256 of the token until the token expires
+ * (or max-ttl elapses), so repeat requests with the same token skip signature verification.
+ * Invalid tokens are never cached.
+ */
 @Service
 public class JwtService {
 
-    // IMPORTANT: This secret key should match the one used in the user-service for signing tokens
-    @Value("${jwt.secret:defaultSecretKeyForTestingOnlyUseAStrongSecretInProduction}")
-    private String secret;
+    private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
+
+    private final JwtParser parser;
+    private final Cache<String, JwtPrincipal> principals;
+    private final Timer cachedParse;
+    private final Timer verifiedParse;
+    private final Timer rejectedParse;
 
-    private Key getSigningKey() {
+    // IMPORTANT: This secret key should match the one used in the user-service for signing tokens
+    public JwtService(@Value("${jwt.secret:defaultSecretKeyForTestingOnlyUseAStrongSecretInProduction}") String secret,
+                      @Value("${jwt.cache.max-size:10000}") long maxSize,
+                      @Value("${jwt.cache.max-ttl:10m}") Duration maxTtl,
+                      MeterRegistry meterRegistry) {
         byte[] secretBytes = DatatypeConverter.parseHexBinary(secret);
-        return Keys.hmacShaKeyFor(secretBytes);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secretBytes))
+                .build();
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+                        return timeToLive(principal, maxTtl);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return timeToLive(principal, maxTtl);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "jwtPrincipals");
+        this.cachedParse = parseTimer(meterRegistry, "cached");
+        this.verifiedParse = parseTimer(meterRegistry, "verified");
+        this.rejectedParse = parseTimer(meterRegistry, "rejected");
     }
 
-    public boolean validateToken(String authToken) {
+    // Empty when the token is malformed, expired or not signed with our key
+    public Optional<JwtPrincipal> parse(String token) {
+        long startedAt = System.nanoTime();
+        String key = hash(token);
+        JwtPrincipal cached = principals.getIfPresent(key);
+        if (cached != null) {
+            cachedParse.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return Optional.of(cached);
+        }
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(authToken);
-            return true;
-        } catch (Exception ex) {
-            // Log exception (e.g., SignatureException, ExpiredJwtException, MalformedJwtException)
-            return false;
+            JwtPrincipal principal = toPrincipal(parser.parseClaimsJws(token).getBody());
+            principals.put(key, principal);
+            verifiedParse.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return Optional.of(principal);
+        } catch (JwtException | IllegalArgumentException ex) {
+            logger.debug("Rejected JWT: {}", ex.getMessage());
+            rejectedParse.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            return Optional.empty();
         }
     }
 
-    public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+    private JwtPrincipal toPrincipal(Claims claims) {
+        Instant expiresAt = claims.getExpiration() == null ? null : claims.getExpiration().toInstant();
+        return new JwtPrincipal(claims.get("id", Long.class), claims.getSubject(), authoritiesOf(claims), expiresAt);
     }
 
-    public List<GrantedAuthority> getAuthoritiesFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        
+    private List<GrantedAuthority> authoritiesOf(Claims claims) {
         // Assuming roles are stored as a comma-separated string or a list in the "role" claim
         // This needs to match how roles are added in the user-service's JwtService
         Object roleClaim = claims.get("role");
@@ -65,12 +123,28 @@ public class JwtService {
         return Collections.emptyList();
     }
 
-    public Long getIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.get("id", Long.class); // Assuming the ID is stored as a Long
+    private static Timer parseTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.parse")
+                .description("Bearer token parsing, from the principal cache or with signature verification")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static long timeToLive(JwtPrincipal principal, Duration maxTtl) {
+        if (principal.expiresAt() == null) {
+            return maxTtl.toNanos();
+        }
+        Duration remaining = Duration.between(Instant.now(), principal.expiresAt());
+        return Math.max(0, Math.min(remaining.toNanos(), maxTtl.toNanos()));
+    }
+
+    // The cache holds hashes, not the bearer tokens themselves
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -26,8 +26,10 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authz -> authz
-                        // Endpoints that do not require authentication for now (e.g., discovery, actuator if exposed)
-                        .requestMatchers("/actuator/**", "/eureka/**").permitAll()
+                        // Probes stay public; caches (which can be flushed), metrics and prometheus are admin-only
+                        .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
+                        .requestMatchers("/eureka/**").permitAll()
                         // All other requests require authentication
                         .anyRequest().permitAll()
                 )
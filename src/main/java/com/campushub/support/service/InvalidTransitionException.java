@@ -0,0 +1,23 @@
+package com.campushub.support.service;
+
+import com.campushub.support.model.Statut;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The support is not in a state the requested workflow step can start from (see Statut#canTransitionTo)
+@Getter
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InvalidTransitionException extends RuntimeException {
+
+    private final Long supportId;
+    private final Statut current;
+    private final Statut target;
+
+    public InvalidTransitionException(Long supportId, Statut current, Statut target) {
+        super("Support de cours " + supportId + " : transition " + current + " -> " + target + " impossible");
+        this.supportId = supportId;
+        this.current = current;
+        this.target = target;
+    }
+}
@@ -0,0 +1,304 @@
+package com.campushub.support.service;
+
+import com.campushub.support.client.UserDirectoryCache;
+import com.campushub.support.client.UserDto;
+import com.campushub.support.client.UserServiceClient;
+import com.campushub.support.dto.SupportNotification;
+import com.campushub.support.model.NotificationOutbox;
+import com.campushub.support.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous delivery stage for outbox rows claimed by NotificationOutboxRelay: recipient resolution
+ * and publishing run on a bounded executor, away from request threads. A row is marked delivered
+ * only once the broker has confirmed it. When the broker or campushub-user-service is unavailable the row is
+ * retried with exponential backoff for as long as it takes (the stored token lets a later attempt resolve the
+ * recipients); only rows that cannot be read are abandoned after max-attempts.
+ * The executor is kept private to this component (not a bean) so that Boot's applicationTaskExecutor stays in place.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final UserDirectoryCache userDirectoryCache;
+    private final NotificationProducer notificationProducer;
+    private final NotificationOutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor notificationExecutor;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration lease;
+    private final Duration outboxRetryBackoff;
+    private final Duration outboxMaxRetryBackoff;
+    private final int maxUnreadableAttempts;
+    private final Timer batchTimer;
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final Counter abandonedCounter;
+
+    public NotificationDispatcher(UserDirectoryCache userDirectoryCache,
+                                  NotificationProducer notificationProducer,
+                                  NotificationOutboxRepository outboxRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  Environment environment,
+                                  @Value("${supports.notifications.pool-size:4}") int poolSize,
+                                  @Value("${supports.notifications.queue-capacity:100}") int queueCapacity,
+                                  @Value("${supports.notifications.max-attempts:3}") int maxAttempts,
+                                  @Value("${supports.notifications.retry-backoff:200ms}") Duration retryBackoff,
+                                  @Value("${supports.outbox.lease:30s}") Duration lease,
+                                  @Value("${supports.outbox.retry-backoff:1s}") Duration outboxRetryBackoff,
+                                  @Value("${supports.outbox.max-retry-backoff:5m}") Duration outboxMaxRetryBackoff,
+                                  @Value("${supports.outbox.max-attempts:10}") int maxUnreadableAttempts) {
+        this.userDirectoryCache = userDirectoryCache;
+        this.notificationProducer = notificationProducer;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.lease = lease;
+        this.outboxRetryBackoff = outboxRetryBackoff;
+        this.outboxMaxRetryBackoff = outboxMaxRetryBackoff;
+        this.maxUnreadableAttempts = maxUnreadableAttempts;
+        this.batchTimer = Timer.builder("notification.outbox.relay")
+                .description("Time to resolve, publish and confirm one outbox batch")
+                .register(meterRegistry);
+        this.deliveredCounter = Counter.builder("notification.outbox.delivered").register(meterRegistry);
+        this.failedCounter = Counter.builder("notification.outbox.failed").register(meterRegistry);
+        this.abandonedCounter = Counter.builder("notification.outbox.abandoned").register(meterRegistry);
+
+        this.notificationExecutor = Threading.VIRTUAL.isActive(environment)
+                ? virtualThreadExecutor(poolSize)
+                : platformThreadExecutor(poolSize, queueCapacity);
+    }
+
+    // Bounded queue of batches: when it is full the relay thread delivers the batch itself
+    // (CallerRunsPolicy), so claiming slows down instead of piling up work in memory.
+    private static AsyncTaskExecutor platformThreadExecutor(int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("notify-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    // spring.threads.virtual.enabled on Java 21: one virtual thread per batch. The concurrency limit keeps
+    // the same pool-size bound on parallel user-service fan-out and blocks the relay when it is reached.
+    private static AsyncTaskExecutor virtualThreadExecutor(int poolSize) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("notify-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(poolSize);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (notificationExecutor instanceof ThreadPoolTaskExecutor threadPool) {
+            threadPool.shutdown();
+        } else if (notificationExecutor instanceof SimpleAsyncTaskExecutor virtualThreads) {
+            virtualThreads.close();
+        }
+    }
+
+    public void dispatch(List<NotificationOutbox> batch) {
+        notificationExecutor.execute(() -> batchTimer.record(() -> deliver(batch)));
+    }
+
+    void deliver(List<NotificationOutbox> batch) {
+        String owner = batch.get(0).getLeaseOwner(); // one claim per batch
+        // Start every lookup first so rows of different departments resolve in parallel
+        List<CompletableFuture<List<Long>>> recipients = batch.stream()
+                .map(this::resolveRecipients)
+                .collect(Collectors.toList());
+
+        List<NotificationOutbox> ready = new ArrayList<>(batch.size());
+        List<SupportNotification> notifications = new ArrayList<>(batch.size());
+        List<NotificationOutbox> failed = new ArrayList<>();
+        List<NotificationOutbox> abandoned = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            NotificationOutbox row = batch.get(i);
+            SupportNotification notification;
+            try {
+                notification = objectMapper.readValue(row.getPayload(), SupportNotification.class);
+            } catch (JsonProcessingException e) {
+                logger.error("Unreadable outbox row {} (attempt {}): {}", row.getId(), row.getAttempts() + 1, e.getMessage());
+                (row.getAttempts() + 1 >= maxUnreadableAttempts ? abandoned : failed).add(row);
+                continue;
+            }
+            try {
+                notification.setRecipientUserIds(recipients.get(i).join());
+            } catch (CompletionException e) {
+                logger.warn("Recipients of outbox row {} ({}) unavailable, retrying later: {}",
+                        row.getId(), row.getOperation(), e.getCause().getMessage());
+                failed.add(row);
+                continue;
+            }
+            ready.add(row);
+            notifications.add(notification);
+        }
+
+        // The batch may have waited in the executor queue past its lease: only publish the rows still held
+        Set<Long> leased = renewLease(ready, owner);
+        List<NotificationOutbox> publishedRows = new ArrayList<>(ready.size());
+        List<SupportNotification> published = new ArrayList<>(ready.size());
+        for (int i = 0; i < ready.size(); i++) {
+            if (leased.contains(ready.get(i).getId())) {
+                publishedRows.add(ready.get(i));
+                published.add(notifications.get(i));
+            }
+        }
+        Set<SupportNotification> unconfirmed = Collections.newSetFromMap(new IdentityHashMap<>());
+        unconfirmed.addAll(publishWithRetry(published));
+        List<Long> deliveredIds = new ArrayList<>(published.size());
+        for (int i = 0; i < published.size(); i++) {
+            if (unconfirmed.contains(published.get(i))) {
+                failed.add(publishedRows.get(i));
+            } else {
+                deliveredIds.add(publishedRows.get(i).getId());
+            }
+        }
+
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!deliveredIds.isEmpty()) {
+                outboxRepository.markDelivered(deliveredIds, owner, now);
+            }
+            // Rows with the same number of attempts share their next retry time
+            failed.stream()
+                    .collect(Collectors.groupingBy(NotificationOutbox::getAttempts,
+                            Collectors.mapping(NotificationOutbox::getId, Collectors.toList())))
+                    .forEach((attempts, ids) -> outboxRepository.markFailed(ids, owner, now.plus(retryDelay(attempts))));
+            if (!abandoned.isEmpty()) {
+                outboxRepository.markAbandoned(abandoned.stream().map(NotificationOutbox::getId).toList(), owner, now);
+            }
+        });
+        deliveredCounter.increment(deliveredIds.size());
+        failedCounter.increment(failed.size());
+        abandonedCounter.increment(abandoned.size());
+    }
+
+    // Delay before the next attempt of a row that already failed the given number of times
+    Duration retryDelay(int attempts) {
+        Duration delay = outboxRetryBackoff.multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(outboxMaxRetryBackoff) > 0 ? outboxMaxRetryBackoff : delay;
+    }
+
+    private Set<Long> renewLease(List<NotificationOutbox> rows, String owner) {
+        if (rows.isEmpty()) {
+            return Set.of();
+        }
+        List<Long> ids = rows.stream().map(NotificationOutbox::getId).toList();
+        // Renewed and read in one transaction: once renewed, no other claim can take the rows
+        List<Long> leased = transactionTemplate.execute(status -> {
+            outboxRepository.renewLease(ids, owner, Instant.now().plus(lease));
+            return outboxRepository.findLeasedIds(ids, owner);
+        });
+        if (leased.size() < ids.size()) {
+            logger.warn("{} outbox rows were claimed again after their lease expired, skipping them", ids.size() - leased.size());
+        }
+        return new HashSet<>(leased);
+    }
+
+    // Completes exceptionally when the user service is unavailable, so that the row is retried rather than
+    // delivered to the author alone; permanent failures (expired token, no department) fall back to the author
+    private CompletableFuture<List<Long>> resolveRecipients(NotificationOutbox row) {
+        NotificationRequest.Audience audience = NotificationRequest.Audience.valueOf(row.getAudience());
+        Long enseignantId = row.getEnseignantId();
+        List<Long> fallback = Collections.singletonList(enseignantId); // notifying only the teacher
+        if (audience == NotificationRequest.Audience.AUTHOR) {
+            return CompletableFuture.completedFuture(fallback);
+        }
+        if (row.getToken() == null) {
+            logger.warn("No caller token for {} notification, notifying only the teacher", row.getOperation());
+            return CompletableFuture.completedFuture(fallback);
+        }
+        boolean deansOnly = audience == NotificationRequest.Audience.DEANS_AND_AUTHOR;
+        return userDirectoryCache.departmentMembersOf(enseignantId, row.getToken())
+                .thenApply(users -> {
+                    List<Long> recipientUserIds = users.stream()
+                            .filter(user -> !deansOnly || "DEAN".equals(user.getRole()))
+                            .map(UserDto::getId)
+                            .collect(Collectors.toList());
+                    if (deansOnly && !recipientUserIds.contains(enseignantId)) {
+                        recipientUserIds.add(enseignantId);
+                    }
+                    return recipientUserIds;
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (UserServiceClient.isTransient(cause) || cause instanceof CallNotPermittedException) {
+                        throw new CompletionException(cause);
+                    }
+                    logger.error("Error fetching users for notification in {}, notifying only the teacher: {}",
+                            row.getOperation(), cause.getMessage());
+                    return fallback;
+                });
+    }
+
+    // Nacks are retried by the producer; this loop covers publish failures (e.g. the broker connection is down)
+    private List<SupportNotification> publishWithRetry(List<SupportNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return notifications;
+        }
+        long backoff = retryBackoff.toMillis();
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                return notificationProducer.sendBatch(notifications);
+            } catch (RuntimeException e) {
+                logger.warn("Publishing {} notifications failed (attempt {}/{}): {}",
+                        notifications.size(), attempt, maxAttempts, e.getMessage());
+                if (attempt == maxAttempts) {
+                    break;
+                }
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                backoff *= 2;
+            }
+        }
+        return notifications;
+    }
+}
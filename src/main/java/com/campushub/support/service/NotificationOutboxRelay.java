@@ -0,0 +1,111 @@
+package com.campushub.support.service;
+
+import com.campushub.support.model.NotificationOutbox;
+import com.campushub.support.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for SupportNotification events. Rows are written in the transaction of the
+ * SupportCours change, so a notification exists if and only if the change is committed, and the broker
+ * is not on the synchronous write path. A scheduled relay then claims pending rows in batches and hands
+ * them to NotificationDispatcher; leases keep replicas from delivering the same row concurrently. Each claim
+ * has its own lease owner, so a batch still queued when its lease expires cannot be confused with the claim
+ * that took its rows over.
+ */
+@Component
+public class NotificationOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxRelay.class);
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong claims = new AtomicLong();
+    private final int batchSize;
+    private final Duration lease;
+    private final Duration retention;
+
+    public NotificationOutboxRelay(NotificationOutboxRepository outboxRepository,
+                                   NotificationDispatcher notificationDispatcher,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${supports.outbox.batch-size:100}") int batchSize,
+                                   @Value("${supports.outbox.lease:30s}") Duration lease,
+                                   @Value("${supports.outbox.retention:1d}") Duration retention) {
+        this.outboxRepository = outboxRepository;
+        this.notificationDispatcher = notificationDispatcher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.retention = retention;
+    }
+
+    // Synchronous listener: runs in the publishing service method's transaction
+    @EventListener
+    public void onNotificationRequest(NotificationRequest request) {
+        NotificationOutbox row = new NotificationOutbox();
+        row.setSupportId(request.getNotification().getSupportId());
+        row.setEnseignantId(request.getNotification().getEnseignantId());
+        row.setAudience(request.getAudience().name());
+        row.setOperation(request.getOperation());
+        row.setToken(request.getToken());
+        try {
+            row.setPayload(objectMapper.writeValueAsString(request.getNotification()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize notification for support " + row.getSupportId(), e);
+        }
+        outboxRepository.save(row);
+    }
+
+    @Scheduled(fixedDelayString = "${supports.outbox.poll-interval:PT0.5S}")
+    public void relay() {
+        List<NotificationOutbox> batch;
+        do {
+            batch = claimBatch();
+            if (!batch.isEmpty()) {
+                notificationDispatcher.dispatch(batch);
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${supports.outbox.purge-interval:PT1H}")
+    public void purgeDelivered() {
+        Integer purged = transactionTemplate.execute(status ->
+                outboxRepository.deleteDeliveredBefore(Instant.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} delivered outbox rows", purged);
+        }
+    }
+
+    private List<NotificationOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<Long> ids = outboxRepository.findClaimableIds(now, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            String owner = instanceId + ":" + claims.incrementAndGet();
+            outboxRepository.claim(ids, owner, now.plus(lease), now);
+            return outboxRepository.findByIdInAndLeaseOwnerOrderByIdAsc(ids, owner);
+        });
+    }
+}
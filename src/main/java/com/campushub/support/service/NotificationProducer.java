@@ -2,26 +2,132 @@ package com.campushub.support.service;
 
 import com.campushub.support.config.RabbitMQConfig;
 import com.campushub.support.dto.SupportNotification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 @Service
 public class NotificationProducer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(NotificationProducer.class);
 
     private final RabbitTemplate rabbitTemplate;
+    private final Duration confirmTimeout;
+    private final int maxConfirmAttempts;
+    private final DistributionSummary batchSize;
+    private final DistributionSummary messageSize;
+    private final Timer batchConfirmed;
+    private final Timer batchUnconfirmed;
+    private final Timer confirmLatency;
+    private final Counter nacks;
 
     @Autowired
-    public NotificationProducer(RabbitTemplate rabbitTemplate) {
+    public NotificationProducer(RabbitTemplate rabbitTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${supports.notifications.confirm-timeout:5s}") Duration confirmTimeout,
+                                @Value("${supports.notifications.confirm-attempts:3}") int maxConfirmAttempts) {
         this.rabbitTemplate = rabbitTemplate;
+        this.confirmTimeout = confirmTimeout;
+        this.maxConfirmAttempts = maxConfirmAttempts;
+        this.batchSize = DistributionSummary.builder("notification.publish.batch.size")
+                .description("Notifications published per batch")
+                .register(meterRegistry);
+        this.messageSize = DistributionSummary.builder("notification.publish.message.size")
+                .description("Serialized notification size")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.batchConfirmed = publishTimer(meterRegistry, "confirmed");
+        this.batchUnconfirmed = publishTimer(meterRegistry, "unconfirmed");
+        this.confirmLatency = Timer.builder("notification.publish.confirm.latency")
+                .description("Time from publish to broker confirm")
+                .register(meterRegistry);
+        this.nacks = Counter.builder("notification.publish.nacks")
+                .description("Notifications nacked or not confirmed in time")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes the batch without waiting between messages, then collects the asynchronous publisher
+     * confirms (spring.rabbitmq.publisher-confirm-type=correlated). Nacked or unconfirmed notifications
+     * are republished, up to supports.notifications.confirm-attempts times.
+     *
+     * @return the notifications still unconfirmed after the last attempt (empty on full success)
+     */
+    public List<SupportNotification> sendBatch(List<SupportNotification> notifications) {
+        batchSize.record(notifications.size());
+        long startedAt = System.nanoTime();
+        List<SupportNotification> pending = notifications;
+        for (int attempt = 1; attempt <= maxConfirmAttempts && !pending.isEmpty(); attempt++) {
+            pending = publishAndAwaitConfirms(pending);
+            if (!pending.isEmpty()) {
+                LOGGER.warn("{} of {} notifications not confirmed (attempt {}/{})",
+                        pending.size(), notifications.size(), attempt, maxConfirmAttempts);
+            }
+        }
+        (pending.isEmpty() ? batchConfirmed : batchUnconfirmed).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        return pending;
+    }
+
+    private List<SupportNotification> publishAndAwaitConfirms(List<SupportNotification> batch) {
+        List<CorrelationData> correlations = new ArrayList<>(batch.size());
+        for (SupportNotification notification : batch) {
+            CorrelationData correlation = new CorrelationData(notification.getSupportId() + ":" + UUID.randomUUID());
+            long sentAt = System.nanoTime();
+            correlation.getFuture().whenComplete((confirm, error) -> {
+                if (error == null && confirm.isAck()) {
+                    confirmLatency.record(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS);
+                }
+            });
+            // Measured on the converted message, so the payload is serialized only once
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY, notification, message -> {
+                messageSize.record(message.getBody().length);
+                return message;
+            }, correlation);
+            correlations.add(correlation);
+        }
+
+        List<SupportNotification> unconfirmed = new ArrayList<>();
+        long deadline = System.nanoTime() + confirmTimeout.toNanos();
+        for (int i = 0; i < correlations.size(); i++) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                if (!correlations.get(i).getFuture().get(remaining, TimeUnit.NANOSECONDS).isAck()) {
+                    nacks.increment();
+                    unconfirmed.add(batch.get(i));
+                }
+            } catch (TimeoutException | ExecutionException e) {
+                nacks.increment();
+                unconfirmed.add(batch.get(i));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                unconfirmed.addAll(batch.subList(i, batch.size()));
+                break;
+            }
+        }
+        return unconfirmed;
     }
 
-    public void sendNotification(SupportNotification notification) {
-        LOGGER.info(String.format("Sending notification => %s", notification.toString()));
-        rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.ROUTING_KEY, notification);
+    // Whole batch, republished attempts included
+    private static Timer publishTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("notification.publish")
+                .description("Time to publish a batch and collect its confirms")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 }
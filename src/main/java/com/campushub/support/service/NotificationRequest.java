@@ -0,0 +1,22 @@
+package com.campushub.support.service;
+
+import com.campushub.support.dto.SupportNotification;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published inside a workflow transaction; NotificationDispatcher resolves the recipients and sends it after commit
+@Getter
+@AllArgsConstructor
+public class NotificationRequest {
+
+    public enum Audience {
+        AUTHOR,            // the teacher only
+        DEANS_AND_AUTHOR,  // deans of the teacher's department plus the teacher
+        DEPARTMENT         // every member of the teacher's department
+    }
+
+    private final SupportNotification notification; // recipientUserIds are filled in by the dispatcher
+    private final Audience audience;
+    private final String token; // caller's JWT, forwarded to campushub-user-service
+    private final String operation;
+}
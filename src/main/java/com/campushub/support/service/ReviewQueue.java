@@ -0,0 +1,162 @@
+package com.campushub.support.service;
+
+import com.campushub.support.client.UserDirectoryCache;
+import com.campushub.support.dto.ReviewQueueItemDto;
+import com.campushub.support.dto.ReviewQueuePage;
+import com.campushub.support.model.Statut;
+import com.campushub.support.repository.SupportCoursRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deans' review queue: submitted supports of one department, oldest first, read from idx_support_review_queue.
+ * A dean claims a support before reviewing it so that colleagues move on to the next one. Each claim is one
+ * conditional UPDATE in its own short transaction: a dean who loses a race simply tries the next candidate,
+ * and nobody ever waits on a lock held by another dean. Claims expire after claim-ttl.
+ */
+@Component
+public class ReviewQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReviewQueue.class);
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    // Oldest available supports tried by claimNext before giving up
+    private static final int CLAIM_CANDIDATES = 10;
+
+    private final SupportCoursRepository supportCoursRepository;
+    private final UserDirectoryCache userDirectoryCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration claimTtl;
+    private final Duration departmentTimeout;
+
+    public ReviewQueue(SupportCoursRepository supportCoursRepository,
+                       UserDirectoryCache userDirectoryCache,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${supports.review.claim-ttl:30m}") Duration claimTtl,
+                       @Value("${supports.review.department-timeout:2s}") Duration departmentTimeout) {
+        this.supportCoursRepository = supportCoursRepository;
+        this.userDirectoryCache = userDirectoryCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.claimTtl = claimTtl;
+        this.departmentTimeout = departmentTimeout;
+    }
+
+    // Department of the user from the (cached) user directory; null when unknown or not resolved in time
+    public String departmentOf(Long userId, String token) {
+        try {
+            return userDirectoryCache.departmentOf(userId, token)
+                    .orTimeout(departmentTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .join();
+        } catch (RuntimeException e) {
+            logger.warn("Could not resolve the department of user {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    // Departments of several users, looked up concurrently under a single department-timeout. Users whose
+    // department is unknown or not resolved in time are left out of the map.
+    public Map<Long, String> departmentsOf(Collection<Long> userIds, String token) {
+        Map<Long, CompletableFuture<String>> lookups = new HashMap<>();
+        for (Long userId : userIds) {
+            lookups.put(userId, userDirectoryCache.departmentOf(userId, token));
+        }
+        try {
+            CompletableFuture.allOf(lookups.values().toArray(CompletableFuture[]::new))
+                    .orTimeout(departmentTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .join();
+        } catch (RuntimeException e) {
+            logger.warn("Could not resolve the department of every user in {}: {}", userIds, e.getMessage());
+        }
+        Map<Long, String> departments = new HashMap<>();
+        lookups.forEach((userId, lookup) -> {
+            if (lookup.isDone() && !lookup.isCompletedExceptionally() && lookup.getNow(null) != null) {
+                departments.put(userId, lookup.getNow(null));
+            }
+        });
+        return departments;
+    }
+
+    // A null department spans every department; with availableTo set, supports claimed by others are left out
+    public ReviewQueuePage page(String department, String cursor, Integer size, Long availableTo) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDate afterDate = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.indexOf('/');
+            try {
+                afterDate = LocalDate.parse(cursor.substring(0, Math.max(separator, 0)));
+                afterId = Long.valueOf(cursor.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid review queue cursor: " + cursor);
+            }
+        }
+
+        List<ReviewQueueItemDto> rows = supportCoursRepository.findReviewQueuePage(Statut.SOUMIS, department,
+                afterDate, afterId, availableTo, claimedSince(), pageSize + 1);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            ReviewQueueItemDto last = rows.get(pageSize - 1);
+            nextCursor = last.getDateDepot() + "/" + last.getId();
+        }
+        return new ReviewQueuePage(rows, nextCursor, pageSize);
+    }
+
+    // Empty when the support is not waiting for review, is outside the department or is claimed by someone else
+    public Optional<ReviewQueueItemDto> claim(Long id, String department, Long reviewer) {
+        Instant now = Instant.now();
+        if (!tryClaim(id, department, reviewer, now)) {
+            return Optional.empty();
+        }
+        return supportCoursRepository.findReviewQueueItem(id);
+    }
+
+    // Claims the oldest available support (the reviewer's own claim first, if any); empty when none is left
+    public Optional<ReviewQueueItemDto> claimNext(String department, Long reviewer) {
+        Instant now = Instant.now();
+        List<ReviewQueueItemDto> candidates = supportCoursRepository.findReviewQueuePage(Statut.SOUMIS, department,
+                null, null, reviewer, claimedSince(), CLAIM_CANDIDATES);
+        for (ReviewQueueItemDto candidate : candidates) {
+            if (tryClaim(candidate.getId(), department, reviewer, now)) {
+                candidate.setClaimedBy(reviewer);
+                candidate.setClaimedAt(now);
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean release(Long id, Long reviewer) {
+        Integer released = transactionTemplate.execute(status -> supportCoursRepository.releaseClaim(id, reviewer));
+        return released != null && released > 0;
+    }
+
+    private boolean tryClaim(Long id, String department, Long reviewer, Instant now) {
+        Integer claimed = transactionTemplate.execute(status ->
+                supportCoursRepository.claim(id, Statut.SOUMIS, department, reviewer, now, now.minus(claimTtl)));
+        return claimed != null && claimed > 0;
+    }
+
+    private Instant claimedSince() {
+        return Instant.now().minus(claimTtl);
+    }
+}
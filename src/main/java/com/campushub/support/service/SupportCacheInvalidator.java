@@ -0,0 +1,90 @@
+package com.campushub.support.service;
+
+import com.campushub.support.config.CacheConfig;
+import com.campushub.support.config.RabbitMQConfig;
+import com.campushub.support.dto.SupportInvalidation;
+import com.campushub.support.model.SupportCours;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+@Component
+public class SupportCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupportCacheInvalidator.class);
+
+    private final CacheManager cacheManager;
+    private final RabbitTemplate rabbitTemplate;
+    private final SupportIdFilter supportIdFilter;
+    private final SupportSearchIndex supportSearchIndex;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public SupportCacheInvalidator(CacheManager cacheManager, RabbitTemplate rabbitTemplate, SupportIdFilter supportIdFilter,
+                                   SupportSearchIndex supportSearchIndex) {
+        this.cacheManager = cacheManager;
+        this.rabbitTemplate = rabbitTemplate;
+        this.supportIdFilter = supportIdFilter;
+        this.supportSearchIndex = supportSearchIndex;
+    }
+
+    // After commit only: evicting earlier would let a concurrent reader re-cache the pre-commit state
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSupportChanged(SupportChangedEvent event) {
+        evictLocal(event.getSupportId());
+
+        SupportInvalidation invalidation = new SupportInvalidation(event.getSupportId(), event.getVersion(), instanceId);
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.CACHE_INVALIDATION_EXCHANGE_NAME, "", invalidation);
+        } catch (AmqpException e) {
+            // The change is committed; other replicas converge when their entries expire (supports.cache.ttl)
+            logger.warn("Could not broadcast cache invalidation for support {}: {}", event.getSupportId(), e.getMessage());
+        }
+    }
+
+    @RabbitListener(queues = "#{supportCacheInvalidationQueue.name}")
+    public void onInvalidation(SupportInvalidation invalidation) {
+        if (instanceId.equals(invalidation.getOrigin())) {
+            return; // already evicted locally after commit
+        }
+        supportIdFilter.onRemoteChange(invalidation.getSupportId(), invalidation.getVersion() == null);
+        supportSearchIndex.onRemoteChange(invalidation.getSupportId(), invalidation.getVersion());
+
+        Cache supports = cacheManager.getCache(CacheConfig.SUPPORTS_CACHE);
+        if (supports != null) {
+            SupportCours cached = supports.get(invalidation.getSupportId(), SupportCours.class);
+            // Keep an entry that was already re-read at (or after) the broadcast version
+            if (cached == null || invalidation.getVersion() == null || cached.getVersion() == null
+                    || cached.getVersion() < invalidation.getVersion()) {
+                supports.evict(invalidation.getSupportId());
+            }
+        }
+        clearPages();
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private void evictLocal(Long supportId) {
+        Cache supports = cacheManager.getCache(CacheConfig.SUPPORTS_CACHE);
+        if (supports != null) {
+            supports.evict(supportId);
+        }
+        clearPages();
+    }
+
+    private void clearPages() {
+        Cache pages = cacheManager.getCache(CacheConfig.SUPPORT_PAGES_CACHE);
+        if (pages != null) {
+            pages.clear();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.campushub.support.service;
+
+import com.campushub.support.dto.ChangeFeedPage;
+import com.campushub.support.dto.SupportChangeDto;
+import com.campushub.support.dto.SupportCoursSummaryDto;
+import com.campushub.support.model.SupportChange;
+import com.campushub.support.repository.SupportChangeRepository;
+import com.campushub.support.repository.SupportCoursRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental change feed over the support catalog. Every SupportCours write appends a SupportChange row in
+ * its own transaction; a client keeps the last position it has seen and asks for the supports changed after
+ * it, so a sync costs O(changes). Position 0 returns the whole catalog (supports missing from the journal are seeded at startup).
+ * Superseded entries are compacted away, so the journal holds about one entry per support.
+ */
+@Component
+public class SupportChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupportChangeFeed.class);
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+    private static final int COMPACTION_BATCH_SIZE = 1000;
+
+    private final SupportChangeRepository changeRepository;
+    private final SupportCoursRepository supportCoursRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration settleDelay;
+    private final Duration compactionAge;
+
+    public SupportChangeFeed(SupportChangeRepository changeRepository,
+                             SupportCoursRepository supportCoursRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${supports.changes.settle-delay:5s}") Duration settleDelay,
+                             @Value("${supports.changes.compaction-age:1h}") Duration compactionAge) {
+        this.changeRepository = changeRepository;
+        this.supportCoursRepository = supportCoursRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.settleDelay = settleDelay;
+        this.compactionAge = compactionAge;
+    }
+
+    // Synchronous listener: the journal row commits (or rolls back) with the change itself
+    @EventListener
+    public void onSupportChanged(SupportChangedEvent event) {
+        SupportChange change = new SupportChange();
+        change.setSupportId(event.getSupportId());
+        change.setDeleted(event.isDeleted());
+        changeRepository.save(change);
+    }
+
+    // Positions are allocated at insert time but become visible at commit, so a gap may be a transaction that
+    // has not committed yet. The page stops before a gap until the entry after it is older than settle-delay;
+    // by then the gap is a rollback (or a compacted entry) and is skipped.
+    public ChangeFeedPage changesSince(Long since, Integer limit) {
+        long position = since == null ? 0 : Math.max(0, since);
+        int pageSize = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        return readOnlyTransaction.execute(status -> {
+            List<SupportChange> rows = changeRepository.findByIdGreaterThanOrderByIdAsc(position, PageRequest.of(0, pageSize + 1));
+            Instant settledBefore = Instant.now().minus(settleDelay);
+
+            // Latest entry per support, in feed order; earlier entries of the same support add nothing
+            Map<Long, SupportChange> latest = new LinkedHashMap<>();
+            long previous = position;
+            boolean stoppedAtGap = false;
+            for (SupportChange row : rows.subList(0, Math.min(rows.size(), pageSize))) {
+                if (row.getId() != previous + 1 && row.getChangedAt().isAfter(settledBefore)) {
+                    stoppedAtGap = true;
+                    break;
+                }
+                latest.remove(row.getSupportId());
+                latest.put(row.getSupportId(), row);
+                previous = row.getId();
+            }
+
+            List<Long> liveIds = latest.values().stream()
+                    .filter(row -> !row.isDeleted())
+                    .map(SupportChange::getSupportId)
+                    .toList();
+            Map<Long, SupportCoursSummaryDto> summaries = supportCoursRepository.findSummariesByIds(liveIds).stream()
+                    .collect(Collectors.toMap(SupportCoursSummaryDto::getId, Function.identity()));
+
+            List<SupportChangeDto> items = new ArrayList<>(latest.size());
+            for (SupportChange row : latest.values()) {
+                // A support deleted after this entry is reported as deleted; its tombstone follows later in the feed
+                SupportCoursSummaryDto summary = row.isDeleted() ? null : summaries.get(row.getSupportId());
+                items.add(new SupportChangeDto(row.getId(), row.getSupportId(), summary == null, summary));
+            }
+            boolean hasMore = !stoppedAtGap && rows.size() > pageSize;
+            return new ChangeFeedPage(items, previous, hasMore);
+        });
+    }
+
+    // Seeds the journal when the feed is first deployed on an existing catalog. Supports without an entry are
+    // seeded on every start rather than only into an empty journal: in a rolling deploy another replica may
+    // already have journaled a write. Two replicas seeding together at worst add a duplicate entry per
+    // support, which readers collapse and compaction removes.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Integer seeded = transactionTemplate.execute(status -> changeRepository.backfill(Instant.now()));
+        if (seeded != null && seeded > 0) {
+            logger.info("Seeded the change journal with {} supports", seeded);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${supports.changes.compaction-interval:PT1H}")
+    public void compact() {
+        Instant cutoff = Instant.now().minus(compactionAge);
+        int compacted = 0;
+        List<Long> ids;
+        do {
+            ids = changeRepository.findSupersededIds(cutoff, PageRequest.of(0, COMPACTION_BATCH_SIZE));
+            if (!ids.isEmpty()) {
+                List<Long> batch = ids;
+                transactionTemplate.executeWithoutResult(status -> changeRepository.deleteAllByIdInBatch(batch));
+                compacted += ids.size();
+            }
+        } while (ids.size() == COMPACTION_BATCH_SIZE);
+        if (compacted > 0) {
+            logger.info("Compacted {} superseded change journal entries", compacted);
+        }
+    }
+}
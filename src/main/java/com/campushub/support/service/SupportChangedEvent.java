@@ -0,0 +1,24 @@
+package com.campushub.support.service;
+
+import com.campushub.support.model.SupportCours;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published inside the transaction of every SupportCours mutation; listeners pick their transaction phase
+@Getter
+@AllArgsConstructor
+public class SupportChangedEvent {
+
+    private final Long supportId;
+
+    // State after the change, null when the support was deleted. Flushed (and versioned) once the transaction commits.
+    private final SupportCours support;
+
+    public Long getVersion() {
+        return support != null ? support.getVersion() : null;
+    }
+
+    public boolean isDeleted() {
+        return support == null;
+    }
+}
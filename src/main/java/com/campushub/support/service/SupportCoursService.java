@@ -1,21 +1,44 @@
 package com.campushub.support.service;
 
+import com.campushub.support.dto.BulkActionResultDto;
+import com.campushub.support.dto.ChangeFeedPage;
+import com.campushub.support.dto.CursorPage;
+import com.campushub.support.dto.ReviewQueueItemDto;
+import com.campushub.support.dto.ReviewQueuePage;
+import com.campushub.support.dto.SearchPage;
+import com.campushub.support.dto.SupportCoursFilter;
+import com.campushub.support.dto.SupportCoursSummaryDto;
+import com.campushub.support.dto.SupportStatsDto;
+import com.campushub.support.dto.SupportVersion;
 import com.campushub.support.model.SupportCours; 
 import com.campushub.support.model.Niveau;
 import com.campushub.support.model.Statut;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface SupportCoursService {
     SupportCours createSupport(String titre, String description, String fichierUrl, Niveau niveau, String matiere);
     Optional<SupportCours> getSupportById(Long id);
-    List<SupportCours> getAllSupports();
-    List<SupportCours> getSupportsByEnseignant(Long enseignantId);
-    List<SupportCours> getSupportsByStatut(Statut statut);
+    Optional<SupportVersion> getSupportVersion(Long id);
+    CursorPage<SupportCoursSummaryDto> findSupports(SupportCoursFilter filter, Long cursor, Integer size);
+    SearchPage<SupportCoursSummaryDto> searchSupports(String text, Niveau niveau, Statut statut, Integer page, Integer size);
+    SupportStatsDto getStatistics();
+    ChangeFeedPage getChanges(Long since, Integer limit);
+    long exportSupports(Consumer<SupportCours> sink);
     SupportCours updateSupport(Long id, String titre, String description, String fichierUrl);
-    SupportCours submitSupport(Long id);
-    SupportCours validateSupport(Long id, String remarque);
-    SupportCours rejectSupport(Long id, String remarque);
+    // Workflow transitions; idempotencyKey (nullable) identifies the client request so that a retry is not applied twice
+    SupportCours submitSupport(Long id, String idempotencyKey);
+    SupportCours validateSupport(Long id, String remarque, String idempotencyKey);
+    SupportCours rejectSupport(Long id, String remarque, String idempotencyKey);
+    List<BulkActionResultDto> submitSupports(List<Long> ids, String idempotencyKey);
+    List<BulkActionResultDto> validateSupports(List<Long> ids, String remarque, String idempotencyKey);
+    List<BulkActionResultDto> rejectSupports(List<Long> ids, String remarque, String idempotencyKey);
     void deleteSupport(Long id);
+    // Review queue of the current dean's department (any department, or the given one, for admins)
+    ReviewQueuePage getReviewQueue(String department, String cursor, Integer size, boolean availableOnly);
+    Optional<ReviewQueueItemDto> claimSupport(Long id);
+    Optional<ReviewQueueItemDto> claimNextSupport(String department);
+    boolean releaseClaim(Long id);
 }
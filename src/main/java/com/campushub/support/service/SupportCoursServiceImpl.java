@@ -1,41 +1,94 @@
 package com.campushub.support.service;
-import com.campushub.support.client.UserDto;
-import com.campushub.support.client.UserServiceClient;
+import com.campushub.support.config.CacheConfig;
+import com.campushub.support.dto.BulkActionResultDto;
+import com.campushub.support.dto.ChangeFeedPage;
+import com.campushub.support.dto.CursorPage;
+import com.campushub.support.dto.PageDigest;
+import com.campushub.support.dto.ReviewQueueItemDto;
+import com.campushub.support.dto.ReviewQueuePage;
+import com.campushub.support.dto.SearchPage;
+import com.campushub.support.dto.SupportCoursFilter;
+import com.campushub.support.dto.SupportCoursSummaryDto;
 import com.campushub.support.dto.SupportNotification;
+import com.campushub.support.dto.SupportStatsDto;
+import com.campushub.support.dto.SupportVersion;
 import com.campushub.support.security.CustomUserDetails;
 import com.campushub.support.model.Niveau;
 import com.campushub.support.model.Statut; // Import mis à jour
 import com.campushub.support.model.SupportCours;
 import com.campushub.support.repository.SupportCoursRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "supports.service", description = "SupportCoursService method latency")
 public class SupportCoursServiceImpl implements SupportCoursService {
 
     private static final Logger logger = LoggerFactory.getLogger(SupportCoursServiceImpl.class);
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
     private final SupportCoursRepository supportCoursRepository;
-    private final NotificationProducer notificationProducer;
-    private final UserServiceClient userServiceClient; // Inject UserServiceClient
+    private final ApplicationEventPublisher eventPublisher;
+    private final SupportSearchIndex searchIndex;
+    private final SupportChangeFeed changeFeed;
+    private final SupportStatistics statistics;
+    private final ReviewQueue reviewQueue;
+    private final SupportIdFilter supportIdFilter;
+    private final int exportFetchSize;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public SupportCoursServiceImpl(SupportCoursRepository supportCoursRepository, NotificationProducer notificationProducer, UserServiceClient userServiceClient) {
+    public SupportCoursServiceImpl(SupportCoursRepository supportCoursRepository, ApplicationEventPublisher eventPublisher,
+                                   SupportSearchIndex searchIndex, SupportChangeFeed changeFeed,
+                                   SupportStatistics statistics, ReviewQueue reviewQueue,
+                                   SupportIdFilter supportIdFilter,
+                                   @Value("${supports.export.fetch-size:500}") int exportFetchSize,
+                                   MeterRegistry meterRegistry,
+                                   PlatformTransactionManager transactionManager) {
         this.supportCoursRepository = supportCoursRepository;
-        this.notificationProducer = notificationProducer;
-        this.userServiceClient = userServiceClient;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.changeFeed = changeFeed;
+        this.statistics = statistics;
+        this.reviewQueue = reviewQueue;
+        this.supportIdFilter = supportIdFilter;
+        this.exportFetchSize = exportFetchSize;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
+    @Transactional
     public SupportCours createSupport(String titre, String description, String fichierUrl, Niveau niveau, String matiere) {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         Long enseignantId;
@@ -60,186 +113,324 @@ public class SupportCoursServiceImpl implements SupportCoursService {
         support.setMatiere(matiere);
         support.setEnseignantId(enseignantId);
         SupportCours savedSupport = supportCoursRepository.save(support);
+        statistics.apply(new SupportStatistics.Changes().add(savedSupport));
+        eventPublisher.publishEvent(new SupportChangedEvent(savedSupport.getId(), savedSupport));
 
         // Send notification to the teacher who created the support
-        List<Long> recipientUserIds = Collections.singletonList(enseignantId);
-        SupportNotification notification = new SupportNotification(
-                savedSupport.getId(),
-                savedSupport.getTitre(),
-                recipientUserIds, // Use the list of recipient IDs
-                savedSupport.getEnseignantId(),
-                savedSupport.getStatut(),
-                savedSupport.getNiveau(),
-                savedSupport.getMatiere()
-        );
-        notificationProducer.sendNotification(notification);
+        requestNotification(savedSupport, NotificationRequest.Audience.AUTHOR, "createSupport");
 
         return savedSupport;
     }
 
+    // Cache misses go through the id filter: ids that do not exist are mostly answered without a query
     @Override
+    @Cacheable(cacheNames = CacheConfig.SUPPORTS_CACHE, key = "#id", unless = "#result == null")
     public Optional<SupportCours> getSupportById(Long id) {
-        return supportCoursRepository.findById(id);
+        return supportIdFilter.lookup(id, supportCoursRepository::findById);
     }
 
+    // Not cached: a conditional GET must compare against the committed version. Conditional GETs of /{id}
+    // start here, so this lookup goes through the id filter too.
     @Override
-    public List<SupportCours> getAllSupports() {
-        return supportCoursRepository.findAll();
+    public Optional<SupportVersion> getSupportVersion(Long id) {
+        return supportIdFilter.lookup(id, supportCoursRepository::findVersionById);
     }
 
     @Override
-    public List<SupportCours> getSupportsByEnseignant(Long enseignantId) {
-        return supportCoursRepository.findByEnseignantId(enseignantId);
+    @Cacheable(cacheNames = CacheConfig.SUPPORT_PAGES_CACHE, key = "{#filter, #cursor, #size}")
+    public CursorPage<SupportCoursSummaryDto> findSupports(SupportCoursFilter filter, Long cursor, Integer size) {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // Fetch one extra row to know whether another page follows without a COUNT query
+        List<SupportCoursSummaryDto> rows = supportCoursRepository.findSummaryPage(filter, cursor, pageSize + 1);
+        Long nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = rows.get(pageSize - 1).getId();
+        }
+        return new CursorPage<>(rows, nextCursor, pageSize, PageDigest.of(rows, nextCursor, pageSize));
     }
-    
+
+    // Served by the Lucene index, not the database (see SupportSearchIndex)
     @Override
-    public List<SupportCours> getSupportsByStatut(Statut statut) {
-        return supportCoursRepository.findByStatut(statut);
+    public SearchPage<SupportCoursSummaryDto> searchSupports(String text, Niveau niveau, Statut statut, Integer page, Integer size) {
+        return searchIndex.search(text, niveau, statut, page, size);
     }
 
     @Override
+    public SupportStatsDto getStatistics() {
+        return statistics.getStatistics();
+    }
+
+    @Override
+    public ChangeFeedPage getChanges(Long since, Integer limit) {
+        return changeFeed.changesSince(since, limit);
+    }
+
+    // One read-only transaction over a forward-only cursor: each support is handed to the sink and dropped,
+    // so memory stays flat whatever the size of the table
+    @Override
+    @Transactional(readOnly = true)
+    public long exportSupports(Consumer<SupportCours> sink) {
+        long exported = 0;
+        try (Stream<SupportCours> supports = supportCoursRepository.streamAll(exportFetchSize)) {
+            for (SupportCours support : (Iterable<SupportCours>) supports::iterator) {
+                sink.accept(support);
+                exported++;
+            }
+        }
+        return exported;
+    }
+
+    @Override
+    @Transactional
     public SupportCours updateSupport(Long id, String titre, String description, String fichierUrl) {
         SupportCours support = supportCoursRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Support de cours non trouvé"));
         support.setTitre(titre);
         support.setDescription(description);
         support.setFichierUrl(fichierUrl);
-        return supportCoursRepository.save(support);
+        SupportCours savedSupport = supportCoursRepository.save(support);
+        eventPublisher.publishEvent(new SupportChangedEvent(savedSupport.getId(), savedSupport));
+        return savedSupport;
     }
 
     @Override
-    public SupportCours submitSupport(Long id) {
-        SupportCours support = supportCoursRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Support de cours non trouvé"));
-        support.setStatut(Statut.SOUMIS);
-        SupportCours savedSupport = supportCoursRepository.save(support);
+    public SupportCours submitSupport(Long id, String idempotencyKey) {
+        Consumer<SupportCours> enterReviewQueue = enterReviewQueue(List.of(id));
+        // Notify the teacher and deans of the department once committed (resolved asynchronously by NotificationDispatcher)
+        return transactionTemplate.execute(status -> applyTransition(id, Statut.SOUMIS, idempotencyKey, enterReviewQueue,
+                NotificationRequest.Audience.DEANS_AND_AUTHOR, "submitSupport"));
+    }
 
-        // Send notification to the teacher and deans of the department
-        List<Long> recipientUserIds;
-        try {
-            String token = getJwtFromSecurityContext();
-            UserDto teacher = userServiceClient.getUserById(savedSupport.getEnseignantId(), token);
-            String department = teacher.getDepartment();
-            List<UserDto> usersInDepartment = userServiceClient.getUsersByDepartment(department, token);
-
-            recipientUserIds = usersInDepartment.stream()
-                    .filter(user -> "DEAN".equals(user.getRole()))
-                    .map(UserDto::getId)
-                    .collect(Collectors.toList());
-            if (!recipientUserIds.contains(savedSupport.getEnseignantId())) {
-                 recipientUserIds.add(savedSupport.getEnseignantId());
-            }
+    @Override
+    @Transactional
+    public SupportCours validateSupport(Long id, String remarque, String idempotencyKey) {
+        // Notify all users in the department once committed (resolved asynchronously by NotificationDispatcher)
+        return applyTransition(id, Statut.VALIDÉ, idempotencyKey, support -> {
+            support.setDateValidation(LocalDate.now());
+            support.setRemarqueDoyen(remarque);
+        }, NotificationRequest.Audience.DEPARTMENT, "validateSupport");
+    }
 
-        } catch (Exception e) {
-            logger.error("Error fetching users for notification in submitSupport: {}", e.getMessage());
-            recipientUserIds = Collections.singletonList(savedSupport.getEnseignantId()); // Fallback to notifying only the teacher
-        }
+    @Override
+    @Transactional
+    public SupportCours rejectSupport(Long id, String remarque, String idempotencyKey) {
+        return applyTransition(id, Statut.REJETÉ, idempotencyKey, support -> support.setRemarqueDoyen(remarque),
+                NotificationRequest.Audience.DEANS_AND_AUTHOR, "rejectSupport");
+    }
 
-        SupportNotification notification = new SupportNotification(
-                savedSupport.getId(),
-                savedSupport.getTitre(),
-                recipientUserIds, // Use the list of recipient IDs
-                savedSupport.getEnseignantId(),
-                savedSupport.getStatut(),
-                savedSupport.getNiveau(),
-                savedSupport.getMatiere()
-        );
-        notificationProducer.sendNotification(notification);
+    @Override
+    public List<BulkActionResultDto> submitSupports(List<Long> ids, String idempotencyKey) {
+        Consumer<SupportCours> enterReviewQueue = ids == null || ids.isEmpty() ? support -> { } : enterReviewQueue(ids);
+        return transactionTemplate.execute(status -> applyBulk(ids, Statut.SOUMIS, idempotencyKey, enterReviewQueue,
+                NotificationRequest.Audience.DEANS_AND_AUTHOR, "submitSupports"));
+    }
 
-        return savedSupport;
+    @Override
+    @Transactional
+    public List<BulkActionResultDto> validateSupports(List<Long> ids, String remarque, String idempotencyKey) {
+        LocalDate today = LocalDate.now();
+        return applyBulk(ids, Statut.VALIDÉ, idempotencyKey, support -> {
+            support.setDateValidation(today);
+            support.setRemarqueDoyen(remarque);
+        }, NotificationRequest.Audience.DEPARTMENT, "validateSupports");
     }
 
     @Override
-    public SupportCours validateSupport(Long id, String remarque) {
-        SupportCours support = supportCoursRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Support de cours non trouvé"));
-        support.setStatut(Statut.VALIDÉ);
-        support.setDateValidation(LocalDate.now());
-        support.setRemarqueDoyen(remarque);
-        SupportCours savedSupport = supportCoursRepository.save(support);
+    @Transactional
+    public List<BulkActionResultDto> rejectSupports(List<Long> ids, String remarque, String idempotencyKey) {
+        return applyBulk(ids, Statut.REJETÉ, idempotencyKey, support -> support.setRemarqueDoyen(remarque),
+                NotificationRequest.Audience.DEANS_AND_AUTHOR, "rejectSupports");
+    }
 
-        // Send notification to all users in the department
-        List<Long> recipientUserIds;
-        try {
-            String token = getJwtFromSecurityContext();
-            UserDto teacher = userServiceClient.getUserById(savedSupport.getEnseignantId(), token);
-            String department = teacher.getDepartment();
-            List<UserDto> usersInDepartment = userServiceClient.getUsersByDepartment(department, token);
-
-            recipientUserIds = usersInDepartment.stream()
-                    .map(UserDto::getId)
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            logger.error("Error fetching users for notification in validateSupport: {}", e.getMessage());
-            recipientUserIds = Collections.singletonList(savedSupport.getEnseignantId()); // Fallback to notifying only the teacher
-        }
+    // Submission captures the teacher's department and drops any claim left from an earlier review round.
+    // Departments are resolved here, once per distinct teacher and before the transaction opens (cached
+    // user-directory lookups, bounded by supports.review.department-timeout), so no connection is held while
+    // waiting for the user service. When the department cannot be resolved the previous one is kept; a support
+    // without one is only listed to admins.
+    private Consumer<SupportCours> enterReviewQueue(Collection<Long> supportIds) {
+        Map<Long, String> departments = reviewQueue.departmentsOf(
+                supportCoursRepository.findEnseignantIdsByIdIn(supportIds), getJwtFromSecurityContext());
+        return support -> {
+            String department = departments.get(support.getEnseignantId());
+            if (department != null) {
+                support.setDepartment(department);
+            }
+            support.setClaimedBy(null);
+            support.setClaimedAt(null);
+        };
+    }
 
-        SupportNotification notification = new SupportNotification(
-                savedSupport.getId(),
-                savedSupport.getTitre(),
-                recipientUserIds, // Use the list of recipient IDs
-                savedSupport.getEnseignantId(),
-                savedSupport.getStatut(),
-                savedSupport.getNiveau(),
-                savedSupport.getMatiere()
-        );
-        notificationProducer.sendNotification(notification);
+    @Override
+    public ReviewQueuePage getReviewQueue(String department, String cursor, Integer size, boolean availableOnly) {
+        CustomUserDetails reviewer = currentUser();
+        return reviewQueue.page(reviewScope(reviewer, department), cursor, size, availableOnly ? reviewer.getId() : null);
+    }
 
-        return savedSupport;
+    @Override
+    public Optional<ReviewQueueItemDto> claimSupport(Long id) {
+        CustomUserDetails reviewer = currentUser();
+        return reviewQueue.claim(id, reviewScope(reviewer, null), reviewer.getId());
     }
 
     @Override
-    public SupportCours rejectSupport(Long id, String remarque) {
+    public Optional<ReviewQueueItemDto> claimNextSupport(String department) {
+        CustomUserDetails reviewer = currentUser();
+        return reviewQueue.claimNext(reviewScope(reviewer, department), reviewer.getId());
+    }
+
+    @Override
+    public boolean releaseClaim(Long id) {
+        return reviewQueue.release(id, currentUser().getId());
+    }
+
+    // Deans work on their own department; admins on the requested one, or on all of them when none is given
+    private String reviewScope(CustomUserDetails reviewer, String requestedDepartment) {
+        boolean admin = reviewer.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        if (admin) {
+            return requestedDepartment == null || requestedDepartment.isBlank() ? null : requestedDepartment;
+        }
+        String department = reviewQueue.departmentOf(reviewer.getId(), reviewer.getToken());
+        if (department == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Département du doyen introuvable");
+        }
+        return department;
+    }
+
+    private CustomUserDetails currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails user) {
+            return user;
+        }
+        throw new RuntimeException("Authenticated user is not of type CustomUserDetails.");
+    }
+
+    // Concurrent transitions of the same support both pass the state check on their own snapshot; the
+    // @Version check at flush then fails the later commit, rolling back its outbox rows with it, so only
+    // one of them notifies.
+    private SupportCours applyTransition(Long id, Statut target, String idempotencyKey, Consumer<SupportCours> mutation,
+                                         NotificationRequest.Audience audience, String operation) {
         SupportCours support = supportCoursRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Support de cours non trouvé"));
-        support.setStatut(Statut.REJETÉ);
-        support.setRemarqueDoyen(remarque);
+        if (isReplay(support, idempotencyKey)) {
+            logger.info("Replayed {} on support {}, answering from its current state", operation, id);
+            countTransition(operation, support.getStatut(), target, "replayed");
+            return support;
+        }
+        if (!support.getStatut().canTransitionTo(target)) {
+            countTransition(operation, support.getStatut(), target, "invalid_transition");
+            throw new InvalidTransitionException(id, support.getStatut(), target);
+        }
+        countTransition(operation, support.getStatut(), target, "applied");
+        SupportStatistics.Changes statChanges = new SupportStatistics.Changes().remove(support, support.getStatut());
+        support.setStatut(target);
+        mutation.accept(support);
+        support.setLastRequestKey(idempotencyKey);
         SupportCours savedSupport = supportCoursRepository.save(support);
+        statistics.apply(statChanges.add(savedSupport));
+        eventPublisher.publishEvent(new SupportChangedEvent(savedSupport.getId(), savedSupport));
+        requestNotification(savedSupport, audience, operation);
+        return savedSupport;
+    }
 
-        // Send notification to the teacher and deans of the department
-        List<Long> recipientUserIds;
-        try {
-            String token = getJwtFromSecurityContext();
-            UserDto teacher = userServiceClient.getUserById(savedSupport.getEnseignantId(), token);
-            String department = teacher.getDepartment();
-            List<UserDto> usersInDepartment = userServiceClient.getUsersByDepartment(department, token);
-
-            recipientUserIds = usersInDepartment.stream()
-                    .filter(user -> "DEAN".equals(user.getRole()))
-                    .map(UserDto::getId)
-                    .collect(Collectors.toList());
-            if (!recipientUserIds.contains(savedSupport.getEnseignantId())) {
-                recipientUserIds.add(savedSupport.getEnseignantId());
+    // One SELECT for the whole request; the UPDATEs are flushed together at commit as JDBC batches
+    // (hibernate.jdbc.batch_size). Supports that cannot make the transition are reported and left untouched.
+    private List<BulkActionResultDto> applyBulk(List<Long> ids, Statut target, String idempotencyKey,
+                                                Consumer<SupportCours> mutation,
+                                                NotificationRequest.Audience audience, String operation) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        LinkedHashSet<Long> requestedIds = new LinkedHashSet<>(ids);
+        Map<Long, SupportCours> supports = supportCoursRepository.findAllById(requestedIds).stream()
+                .collect(Collectors.toMap(SupportCours::getId, Function.identity()));
+
+        List<BulkActionResultDto> results = new ArrayList<>(requestedIds.size());
+        List<SupportCours> changed = new ArrayList<>();
+        SupportStatistics.Changes statChanges = new SupportStatistics.Changes();
+        for (Long id : requestedIds) {
+            SupportCours support = supports.get(id);
+            if (support == null) {
+                results.add(new BulkActionResultDto(id, BulkActionResultDto.Outcome.NOT_FOUND, null));
+            } else if (isReplay(support, idempotencyKey)) {
+                countTransition(operation, support.getStatut(), target, "replayed");
+                results.add(new BulkActionResultDto(id, BulkActionResultDto.Outcome.OK, support.getStatut()));
+            } else if (!support.getStatut().canTransitionTo(target)) {
+                countTransition(operation, support.getStatut(), target, "invalid_transition");
+                results.add(new BulkActionResultDto(id, BulkActionResultDto.Outcome.INVALID_TRANSITION, support.getStatut()));
+            } else {
+                countTransition(operation, support.getStatut(), target, "applied");
+                statChanges.remove(support, support.getStatut());
+                support.setStatut(target);
+                mutation.accept(support);
+                support.setLastRequestKey(idempotencyKey);
+                statChanges.add(support);
+                changed.add(support);
+                results.add(new BulkActionResultDto(id, BulkActionResultDto.Outcome.OK, target));
             }
-        } catch (Exception e) {
-            logger.error("Error fetching users for notification in rejectSupport: {}", e.getMessage());
-            recipientUserIds = Collections.singletonList(savedSupport.getEnseignantId()); // Fallback
         }
-        
+
+        // Deltas merged per counter row: one UPDATE per distinct row, not per support
+        statistics.apply(statChanges);
+        for (SupportCours savedSupport : supportCoursRepository.saveAll(changed)) {
+            eventPublisher.publishEvent(new SupportChangedEvent(savedSupport.getId(), savedSupport));
+            // The outbox rows of one request are claimed and published as one relay batch; department
+            // lookups are shared through UserDirectoryCache, so each distinct department is resolved once.
+            requestNotification(savedSupport, audience, operation);
+        }
+        return results;
+    }
+
+    // Counted when decided; a transition that later loses the @Version check shows up as a 409 in http.server.requests
+    private void countTransition(String operation, Statut from, Statut to, String outcome) {
+        Counter.builder("supports.transitions")
+                .description("Workflow transitions by source and target status")
+                .tag("operation", operation)
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // The last transition of this support was made by a request with the same key: a gateway retry
+    private static boolean isReplay(SupportCours support, String idempotencyKey) {
+        return idempotencyKey != null && idempotencyKey.equals(support.getLastRequestKey());
+    }
+
+    @Override
+    @Transactional
+    public void deleteSupport(Long id) {
+        supportCoursRepository.findById(id).ifPresent(support -> {
+            supportCoursRepository.delete(support);
+            statistics.apply(new SupportStatistics.Changes().remove(support, support.getStatut()));
+            eventPublisher.publishEvent(new SupportChangedEvent(id, null));
+        });
+    }
+
+    private void requestNotification(SupportCours savedSupport, NotificationRequest.Audience audience, String operation) {
         SupportNotification notification = new SupportNotification(
                 savedSupport.getId(),
                 savedSupport.getTitre(),
-                recipientUserIds,
+                null, // recipients are resolved by the dispatcher
                 savedSupport.getEnseignantId(),
                 savedSupport.getStatut(),
                 savedSupport.getNiveau(),
                 savedSupport.getMatiere()
         );
-        notificationProducer.sendNotification(notification);
-
-        return savedSupport;
-    }
-
-    @Override
-    public void deleteSupport(Long id) {
-        supportCoursRepository.deleteById(id);
+        String token = audience == NotificationRequest.Audience.AUTHOR ? null : getJwtFromSecurityContext();
+        eventPublisher.publishEvent(new NotificationRequest(notification, audience, token, operation));
     }
 
+    // The dispatcher runs outside the request thread, so the caller's token is captured here.
+    // Null when unavailable; the dispatcher then falls back to notifying only the teacher.
     private String getJwtFromSecurityContext() {
-        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        if (principal instanceof CustomUserDetails) {
-            return ((CustomUserDetails) principal).getToken();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails) {
+            return ((CustomUserDetails) authentication.getPrincipal()).getToken();
         }
-        throw new RuntimeException("Could not retrieve JWT token from SecurityContext.");
+        logger.warn("Could not retrieve JWT token from SecurityContext.");
+        return null;
     }
 }
@@ -0,0 +1,279 @@
+package com.campushub.support.service;
+
+import com.campushub.support.repository.SupportCoursRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Answers lookups of support ids that do not exist (crawlers, stale bookmarks) without a database round-trip.
+ * A Bloom filter over the existing ids is rebuilt from the database at startup and every rebuild-interval; an
+ * id up to the highest one seen by the last rebuild that is not in the filter cannot exist, as ids are never
+ * reused. Newer ids, deleted ids (a Bloom filter cannot forget) and false positives go to the database once,
+ * then to a small negative cache. Supports created meanwhile, here or on another replica (through the cache
+ * invalidation broadcast), are added to the filter as they are written.
+ */
+@Component
+public class SupportIdFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupportIdFilter.class);
+
+    private final SupportCoursRepository supportCoursRepository;
+    private final long expectedCount;
+    private final double falsePositiveRate;
+    private final int rebuildBatchSize;
+    private final Cache<Long, Boolean> missingIds;
+    // Bumped after each committed change: a miss read before it may be stale and is not cached
+    private final AtomicLong generation = new AtomicLong();
+    private final Object writeLock = new Object();
+    private volatile Snapshot current = new Snapshot(new BloomFilter(1, 0.5), 0);
+    // Filter being filled by a rebuild; writes go to both until it replaces the current one
+    private BloomFilter building;
+
+    private final Counter filtered;
+    private final Counter negativeCached;
+    private final Counter found;
+    private final Counter falsePositives;
+    private final Counter notFound;
+
+    public SupportIdFilter(SupportCoursRepository supportCoursRepository, MeterRegistry meterRegistry,
+                           @Value("${supports.ids.expected-count:1000000}") long expectedCount,
+                           @Value("${supports.ids.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${supports.ids.negative-cache.max-size:10000}") long negativeCacheSize,
+                           @Value("${supports.ids.negative-cache.ttl:10m}") Duration negativeCacheTtl,
+                           @Value("${supports.ids.rebuild-batch-size:10000}") int rebuildBatchSize) {
+        this.supportCoursRepository = supportCoursRepository;
+        this.expectedCount = expectedCount;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildBatchSize = rebuildBatchSize;
+        this.missingIds = Caffeine.newBuilder()
+                .maximumSize(negativeCacheSize)
+                .expireAfterWrite(negativeCacheTtl)
+                .build();
+
+        this.filtered = lookups(meterRegistry, "filtered");
+        this.negativeCached = lookups(meterRegistry, "negative_cached");
+        this.found = lookups(meterRegistry, "found");
+        this.falsePositives = lookups(meterRegistry, "false_positive");
+        this.notFound = lookups(meterRegistry, "not_found");
+        Gauge.builder("supports.ids.filter.memory", this, filter -> filter.current.filter().sizeInBytes())
+                .description("Memory held by the support id Bloom filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("supports.ids.filter.expected.fpp", this, filter -> filter.current.filter().expectedFpp())
+                .description("False positive probability of the support id filter at its current fill")
+                .register(meterRegistry);
+        Gauge.builder("supports.ids.filter.observed.fpp", this, SupportIdFilter::observedFpp)
+                .description("Share of lookups of missing ids covered by the filter that it let through")
+                .register(meterRegistry);
+        Gauge.builder("supports.ids.negative.cache.size", missingIds, Cache::estimatedSize)
+                .description("Missing support ids held by the negative cache")
+                .register(meterRegistry);
+    }
+
+    // Empty without calling the loader when the id is known not to exist; misses of the loader are remembered
+    public <T> Optional<T> lookup(Long id, Function<Long, Optional<T>> loader) {
+        Snapshot snapshot = current;
+        boolean covered = id <= snapshot.coveredUpTo();
+        if (covered && !snapshot.filter().mightContain(id)) {
+            filtered.increment();
+            return Optional.empty();
+        }
+        if (missingIds.getIfPresent(id) != null) {
+            negativeCached.increment();
+            return Optional.empty();
+        }
+        long seen = generation.get();
+        Optional<T> result = loader.apply(id);
+        if (result.isPresent()) {
+            found.increment();
+            return result;
+        }
+        (covered ? falsePositives : notFound).increment();
+        missingIds.put(id, Boolean.TRUE);
+        // A change committed during the read may have created the id: drop the entry rather than serve a stale miss
+        if (generation.get() != seen) {
+            missingIds.invalidate(id);
+        }
+        return result;
+    }
+
+    // Inside the writing transaction: the id is in the filter before it becomes visible to readers
+    @EventListener
+    public void onSupportWritten(SupportChangedEvent event) {
+        if (!event.isDeleted()) {
+            add(event.getSupportId());
+        }
+    }
+
+    // After commit, again: a rebuild started since the write must not miss the id
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSupportChanged(SupportChangedEvent event) {
+        applyChange(event.getSupportId(), event.isDeleted());
+    }
+
+    // Committed change of another replica, relayed by SupportCacheInvalidator
+    public void onRemoteChange(Long supportId, boolean deleted) {
+        applyChange(supportId, deleted);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${supports.ids.rebuild-interval:PT15M}",
+            fixedDelayString = "${supports.ids.rebuild-interval:PT15M}")
+    public void rebuild() {
+        BloomFilter fresh = new BloomFilter(Math.max(expectedCount, 2 * supportCoursRepository.count()), falsePositiveRate);
+        synchronized (writeLock) {
+            building = fresh;
+        }
+        long lastId = 0;
+        int count = 0;
+        try {
+            List<Long> batch;
+            do {
+                batch = supportCoursRepository.findIdsAfter(lastId, PageRequest.of(0, rebuildBatchSize));
+                for (Long id : batch) {
+                    fresh.put(id);
+                }
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1);
+                    count += batch.size();
+                }
+            } while (batch.size() == rebuildBatchSize);
+        } catch (RuntimeException e) {
+            // The current filter stays in place until the next rebuild
+            synchronized (writeLock) {
+                building = null;
+            }
+            logger.error("Support id filter rebuild failed after {} ids", count, e);
+            return;
+        }
+        synchronized (writeLock) {
+            current = new Snapshot(fresh, lastId);
+            building = null;
+        }
+        logger.info("Support id filter rebuilt with {} ids ({} KiB)", count, fresh.sizeInBytes() / 1024);
+    }
+
+    private void applyChange(Long supportId, boolean deleted) {
+        if (deleted) {
+            missingIds.put(supportId, Boolean.TRUE);
+            return;
+        }
+        add(supportId);
+        generation.incrementAndGet();
+        missingIds.invalidate(supportId);
+    }
+
+    private void add(Long id) {
+        synchronized (writeLock) {
+            current.filter().put(id);
+            if (building != null) {
+                building.put(id);
+            }
+        }
+    }
+
+    private double observedFpp() {
+        double passed = falsePositives.count();
+        double covered = passed + filtered.count();
+        return covered == 0 ? 0 : passed / covered;
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("supports.ids.lookups")
+                .description("Support id lookups on public reads, by how they were answered")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // Ids above coveredUpTo were created after the filter was built and may not all be in it
+    private record Snapshot(BloomFilter filter, long coveredUpTo) {
+    }
+
+    // Lock-free Bloom filter over longs, k probes derived from one 64-bit hash (Kirsch-Mitzenmacher)
+    static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLong setBits = new AtomicLong();
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.max(1, (bits + 63) / 64);
+            this.words = new AtomicLongArray(wordCount);
+            this.bitCount = wordCount * 64L;
+            this.hashCount = (int) Math.max(1, Math.round((double) bitCount / Math.max(1, expectedInsertions) * Math.log(2)));
+        }
+
+        void put(long value) {
+            long hash = mix(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1, h2, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long previous = words.getAndAccumulate(word, mask, (current, m) -> current | m);
+                if ((previous & mask) == 0) {
+                    setBits.incrementAndGet();
+                }
+            }
+        }
+
+        boolean mightContain(long value) {
+            long hash = mix(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1, h2, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long sizeInBytes() {
+            return words.length() * 8L;
+        }
+
+        // Probability that an absent value has all its bits set, given the bits set so far
+        double expectedFpp() {
+            return Math.pow((double) setBits.get() / bitCount, hashCount);
+        }
+
+        private long index(int h1, int h2, int i) {
+            long combined = h1 + (long) i * h2;
+            return (combined < 0 ? ~combined : combined) % bitCount;
+        }
+
+        // MurmurHash3 finalizer: sequential ids spread over the whole bit array
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb9fe1a85ec53L;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.campushub.support.service;
+
+import com.campushub.support.dto.PageDigest;
+import com.campushub.support.dto.SearchPage;
+import com.campushub.support.dto.SupportCoursSummaryDto;
+import com.campushub.support.model.Niveau;
+import com.campushub.support.model.Statut;
+import com.campushub.support.model.SupportCours;
+import com.campushub.support.repository.SupportCoursRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.util.ElisionFilter;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Embedded Lucene index over titre, description and matiere, kept up to date from SupportChangedEvent after
+ * each commit and rebuilt from the database at startup. Hits are served from stored fields, so a search
+ * never touches the database. Changes become searchable within supports.search.refresh-interval.
+ */
+@Component
+public class SupportSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupportSearchIndex.class);
+
+    static final String ID = "id";
+    static final String TITRE = "titre";
+    static final String DESCRIPTION = "description";
+    static final String MATIERE = "matiere";
+    static final String NIVEAU = "niveau";
+    static final String STATUT = "statut";
+    static final String FICHIER_URL = "fichierUrl";
+    static final String ENSEIGNANT_ID = "enseignantId";
+    static final String DATE_DEPOT = "dateDepot";
+    static final String DATE_VALIDATION = "dateValidation";
+    static final String GENERATION = "generation";
+
+    static final int MAX_PAGE_SIZE = 100;
+    // Deepest hit reachable through paging; ranked results past this are not useful and get expensive
+    static final int MAX_RESULT_WINDOW = 1000;
+    private static final int MAX_QUERY_TERMS = 10;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    // Segments are kept sorted newest first: equal scores then come out newest first, and filter-only searches
+    // stop after the first hits of each segment. Ranked searches are plain top-k by score, which lets Lucene
+    // skip blocks that cannot make the page (a secondary sort field would force scoring every match).
+    private static final Sort NEWEST_FIRST = new Sort(new SortField(ID, SortField.Type.LONG, true));
+
+    private final SupportCoursRepository supportCoursRepository;
+    private final int rebuildBatchSize;
+    private final Analyzer analyzer = new SupportAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    // Last version indexed per support (Long.MAX_VALUE once deleted), so that events of concurrent
+    // transactions applied out of order cannot overwrite a newer state or resurrect a deleted support
+    private final Cache<Long, Long> indexedVersions = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .maximumSize(100_000)
+            .build();
+    // Documents not re-indexed by the latest rebuild belong to supports deleted while the index was offline
+    private final long generation = System.currentTimeMillis();
+    private final Object writeLock = new Object();
+
+    public SupportSearchIndex(SupportCoursRepository supportCoursRepository,
+                              @Value("${supports.search.index-path:}") String indexPath,
+                              @Value("${supports.search.rebuild-batch-size:1000}") int rebuildBatchSize) {
+        this.supportCoursRepository = supportCoursRepository;
+        this.rebuildBatchSize = rebuildBatchSize;
+        try {
+            this.directory = indexPath.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexPath));
+            this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                    .setIndexSort(NEWEST_FIRST));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the search index at '" + indexPath + "'", e);
+        }
+    }
+
+    // Each batch is read and indexed under the write lock, so a change committed meanwhile is either already
+    // in the batch or applied after it by onSupportChanged.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        long indexed = 0;
+        long lastId = 0;
+        try {
+            while (true) {
+                List<SupportCours> batch;
+                synchronized (writeLock) {
+                    batch = supportCoursRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, rebuildBatchSize));
+                    for (SupportCours support : batch) {
+                        if (indexedVersions.getIfPresent(support.getId()) == null) {
+                            writer.updateDocument(idTerm(support.getId()), toDocument(support));
+                        }
+                    }
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+                indexed += batch.size();
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+            synchronized (writeLock) {
+                writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, generation - 1));
+            }
+            commit();
+            refresh();
+            logger.info("Search index rebuilt with {} supports in {} ms", indexed, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (IOException e) {
+            logger.error("Search index rebuild failed after {} supports", indexed, e);
+        }
+    }
+
+    // After commit only, like the cache invalidation: the index must never show uncommitted state
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSupportChanged(SupportChangedEvent event) {
+        try {
+            synchronized (writeLock) {
+                if (event.isDeleted()) {
+                    writer.deleteDocuments(idTerm(event.getSupportId()));
+                    indexedVersions.put(event.getSupportId(), Long.MAX_VALUE);
+                    return;
+                }
+                Long indexedVersion = indexedVersions.getIfPresent(event.getSupportId());
+                Long version = event.getVersion() != null ? event.getVersion() : 0L;
+                if (indexedVersion != null && indexedVersion >= version) {
+                    return;
+                }
+                writer.updateDocument(idTerm(event.getSupportId()), toDocument(event.getSupport()));
+                indexedVersions.put(event.getSupportId(), version);
+            }
+        } catch (IOException e) {
+            // The support is committed; it is picked up again by the next rebuild
+            logger.warn("Could not index support {}: {}", event.getSupportId(), e.getMessage());
+        }
+    }
+
+    // Changes committed by another replica only arrive as an invalidation (id and version), so the
+    // document is re-read from the database under the write lock, like a rebuild batch.
+    public void onRemoteChange(Long supportId, Long version) {
+        try {
+            synchronized (writeLock) {
+                Long indexedVersion = indexedVersions.getIfPresent(supportId);
+                if (version != null && indexedVersion != null && indexedVersion >= version) {
+                    return;
+                }
+                SupportCours support = version == null ? null : supportCoursRepository.findById(supportId).orElse(null);
+                if (support == null) {
+                    writer.deleteDocuments(idTerm(supportId));
+                    indexedVersions.put(supportId, Long.MAX_VALUE);
+                    return;
+                }
+                writer.updateDocument(idTerm(supportId), toDocument(support));
+                indexedVersions.put(supportId, support.getVersion() != null ? support.getVersion() : 0L);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not index remote change of support {}: {}", supportId, e.getMessage());
+        }
+    }
+
+    // Text is matched against titre (boosted), matiere and description; the last term also matches as a
+    // prefix so that results follow the user while typing. A blank text lists the filtered supports.
+    public SearchPage<SupportCoursSummaryDto> search(String text, Niveau niveau, Statut statut, Integer page, Integer size) {
+        int pageSize = size == null ? 20 : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        if ((long) pageNumber * pageSize >= MAX_RESULT_WINDOW) {
+            return new SearchPage<>(List.of(), 0, pageNumber, pageSize, PageDigest.of(List.of(), 0, pageNumber, pageSize));
+        }
+        int offset = pageNumber * pageSize;
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            List<String> terms = analyze(text);
+            Query query = buildQuery(terms, niveau, statut);
+            int window = Math.min(offset + pageSize, MAX_RESULT_WINDOW);
+            TopDocs topDocs = terms.isEmpty() ? searcher.search(query, window, NEWEST_FIRST) : searcher.search(query, window);
+            StoredFields storedFields = searcher.storedFields();
+            List<SupportCoursSummaryDto> items = new ArrayList<>(pageSize);
+            for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                ScoreDoc hit = topDocs.scoreDocs[i];
+                items.add(toSummary(storedFields.document(hit.doc)));
+            }
+            return new SearchPage<>(items, topDocs.totalHits.value, pageNumber, pageSize,
+                    PageDigest.of(items, topDocs.totalHits.value, pageNumber, pageSize));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        } finally {
+            if (searcher != null) {
+                release(searcher);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${supports.search.refresh-interval:PT1S}")
+    public void refresh() throws IOException {
+        searcherManager.maybeRefreshBlocking();
+    }
+
+    // The index can always be rebuilt from the database, so losing the changes since the last commit is harmless
+    @Scheduled(fixedDelayString = "${supports.search.commit-interval:PT1M}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private static Query buildQuery(List<String> terms, Niveau niveau, Statut statut) {
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        if (terms.isEmpty()) {
+            query.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        for (int i = 0; i < terms.size(); i++) {
+            // Every term must match, in any of the three fields
+            String term = terms.get(i);
+            boolean prefix = i == terms.size() - 1 && term.length() >= MIN_PREFIX_LENGTH;
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            addFieldClauses(anyField, TITRE, term, 3f, prefix);
+            addFieldClauses(anyField, MATIERE, term, 2f, prefix);
+            addFieldClauses(anyField, DESCRIPTION, term, 1f, prefix);
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        if (niveau != null) {
+            query.add(new TermQuery(new Term(NIVEAU, niveau.name())), BooleanClause.Occur.FILTER);
+        }
+        if (statut != null) {
+            query.add(new TermQuery(new Term(STATUT, statut.name())), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    // Exact terms outrank completions: prefix matches are constant-scored at half the field boost
+    private static void addFieldClauses(BooleanQuery.Builder anyField, String field, String term, float boost, boolean prefix) {
+        anyField.add(new BoostQuery(new TermQuery(new Term(field, term)), boost), BooleanClause.Occur.SHOULD);
+        if (prefix) {
+            anyField.add(new BoostQuery(new PrefixQuery(new Term(field, term)), boost / 2), BooleanClause.Occur.SHOULD);
+        }
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream(TITRE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private Document toDocument(SupportCours support) {
+        Document document = new Document();
+        document.add(new StringField(ID, support.getId().toString(), Field.Store.NO));
+        document.add(new StoredField(ID, support.getId()));
+        document.add(new NumericDocValuesField(ID, support.getId()));
+        document.add(new LongPoint(GENERATION, generation));
+        document.add(new TextField(TITRE, support.getTitre(), Field.Store.YES));
+        if (support.getDescription() != null) {
+            document.add(new TextField(DESCRIPTION, support.getDescription(), Field.Store.NO));
+        }
+        if (support.getMatiere() != null) {
+            document.add(new TextField(MATIERE, support.getMatiere(), Field.Store.YES));
+        }
+        if (support.getNiveau() != null) {
+            document.add(new StringField(NIVEAU, support.getNiveau().name(), Field.Store.YES));
+        }
+        document.add(new StringField(STATUT, support.getStatut().name(), Field.Store.YES));
+        document.add(new StoredField(FICHIER_URL, support.getFichierUrl()));
+        document.add(new StoredField(ENSEIGNANT_ID, support.getEnseignantId()));
+        if (support.getDateDepot() != null) {
+            document.add(new StoredField(DATE_DEPOT, support.getDateDepot().toString()));
+        }
+        if (support.getDateValidation() != null) {
+            document.add(new StoredField(DATE_VALIDATION, support.getDateValidation().toString()));
+        }
+        return document;
+    }
+
+    private static SupportCoursSummaryDto toSummary(Document document) {
+        String niveau = document.get(NIVEAU);
+        String dateDepot = document.get(DATE_DEPOT);
+        String dateValidation = document.get(DATE_VALIDATION);
+        return new SupportCoursSummaryDto(
+                document.getField(ID).numericValue().longValue(),
+                document.get(TITRE),
+                document.get(FICHIER_URL),
+                niveau != null ? Niveau.valueOf(niveau) : null,
+                document.get(MATIERE),
+                document.getField(ENSEIGNANT_ID).numericValue().longValue(),
+                dateDepot != null ? LocalDate.parse(dateDepot) : null,
+                Statut.valueOf(document.get(STATUT)),
+                dateValidation != null ? LocalDate.parse(dateValidation) : null);
+    }
+
+    private static Term idTerm(Long id) {
+        return new Term(ID, id.toString());
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            logger.warn("Could not release index searcher: {}", e.getMessage());
+        }
+    }
+
+    // Word tokens without French elisions (l', d', ...), lower-cased and accent-folded; no stemming, so that
+    // prefix matching behaves predictably
+    private static final class SupportAnalyzer extends Analyzer {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer source = new StandardTokenizer();
+            TokenStream result = new ElisionFilter(source, FrenchAnalyzer.DEFAULT_ARTICLES);
+            result = new LowerCaseFilter(result);
+            result = new ASCIIFoldingFilter(result);
+            return new TokenStreamComponents(source, result);
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
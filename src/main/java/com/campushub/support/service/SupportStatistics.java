@@ -0,0 +1,243 @@
+package com.campushub.support.service;
+
+import com.campushub.support.dto.StatGroupDto;
+import com.campushub.support.dto.SupportStatsDto;
+import com.campushub.support.model.Niveau;
+import com.campushub.support.model.Statut;
+import com.campushub.support.model.SupportCours;
+import com.campushub.support.model.SupportStat;
+import com.campushub.support.model.SupportStat.Dimension;
+import com.campushub.support.repository.SupportCoursRepository;
+import com.campushub.support.repository.SupportStatRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Dashboard counters per statut, overall and per niveau, matiere, enseignant and department, with the total review delay
+ * of validated supports. Every write of SupportCoursServiceImpl adds its deltas with relative upserts in the
+ * write's transaction, so reading the statistics costs one small table read whatever the size of the catalog.
+ * The deltas are written just before commit, so the few hot rows (ALL, niveau, matiere) stay locked for the
+ * commit only. A periodic recount against support_cours corrects any drift (writes made outside the service,
+ * restores) without locking anything.
+ */
+@Component
+public class SupportStatistics {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupportStatistics.class);
+
+    private final SupportStatRepository statRepository;
+    private final SupportCoursRepository supportCoursRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final Counter corrections;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public SupportStatistics(SupportStatRepository statRepository, SupportCoursRepository supportCoursRepository,
+                             PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.statRepository = statRepository;
+        this.supportCoursRepository = supportCoursRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+        this.corrections = Counter.builder("supports.stats.corrections")
+                .description("Counter rows corrected by the reconciliation")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counter deltas of one write, merged per row. Record the support under its old statut before changing it
+     * ({@link #remove}) and under the new one after ({@link #add}).
+     */
+    public static final class Changes {
+
+        private final Map<Key, long[]> deltas = new LinkedHashMap<>();
+
+        public Changes add(SupportCours support) {
+            return count(support, support.getStatut(), 1);
+        }
+
+        public Changes remove(SupportCours support, Statut statut) {
+            return count(support, statut, -1);
+        }
+
+        private Changes count(SupportCours support, Statut statut, int sign) {
+            long reviewDays = sign * reviewDays(statut, support);
+            for (Key key : keysOf(statut, support.getNiveau(), support.getMatiere(), support.getEnseignantId(),
+                    support.getDepartment())) {
+                long[] delta = deltas.computeIfAbsent(key, k -> new long[2]);
+                delta[0] += sign;
+                delta[1] += reviewDays;
+            }
+            return this;
+        }
+
+        private void merge(Changes other) {
+            other.deltas.forEach((key, delta) -> {
+                long[] merged = deltas.computeIfAbsent(key, k -> new long[2]);
+                merged[0] += delta[0];
+                merged[1] += delta[1];
+            });
+        }
+    }
+
+    // Must run inside the caller's transaction. The deltas of the whole transaction are merged and written on its
+    // connection as its last statements, after the supports themselves have been flushed.
+    public void apply(Changes changes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Statistics changes must be applied inside a transaction");
+        }
+        Changes pending = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Changes transactionChanges = new Changes();
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    entityManager.flush();
+                    write(transactionChanges.deltas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SupportStatistics.this);
+                }
+            });
+            pending = transactionChanges;
+        }
+        pending.merge(changes);
+    }
+
+    // Relative upserts in key order, so two writers always lock shared rows in the same order
+    private void write(Map<Key, long[]> deltas) {
+        deltas.entrySet().stream()
+                .filter(entry -> entry.getValue()[0] != 0 || entry.getValue()[1] != 0)
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    Key key = entry.getKey();
+                    long[] delta = entry.getValue();
+                    statRepository.increment(key.dimension().name(), key.value(), key.statut().name(), delta[0], delta[1]);
+                });
+    }
+
+    public SupportStatsDto getStatistics() {
+        Map<Dimension, Map<String, StatGroupDto>> groups = new EnumMap<>(Dimension.class);
+        for (SupportStat stat : statRepository.findAll()) {
+            StatGroupDto group = groups.computeIfAbsent(stat.getDimension(), d -> new TreeMap<>())
+                    .computeIfAbsent(stat.getDimensionValue(), StatGroupDto::new);
+            if (stat.getSupportCount() > 0) {
+                group.getByStatut().put(stat.getStatut(), stat.getSupportCount());
+                group.setTotal(group.getTotal() + stat.getSupportCount());
+            }
+            if (stat.getStatut() == Statut.VALIDÉ && stat.getSupportCount() > 0) {
+                group.setAverageReviewDays((double) stat.getReviewDays() / stat.getSupportCount());
+            }
+        }
+        StatGroupDto overall = groups.getOrDefault(Dimension.ALL, Map.of()).getOrDefault("", new StatGroupDto(""));
+        return new SupportStatsDto(overall, nonEmpty(groups, Dimension.NIVEAU),
+                nonEmpty(groups, Dimension.MATIERE), nonEmpty(groups, Dimension.ENSEIGNANT),
+                nonEmpty(groups, Dimension.DEPARTMENT));
+    }
+
+    // Also seeds the counters when they are first deployed on an existing catalog
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${supports.stats.reconcile-interval:PT1H}",
+            fixedDelayString = "${supports.stats.reconcile-interval:PT1H}")
+    public void reconcile() {
+        // Both reads come from one snapshot, and every write changes supports and counters in the same
+        // transaction, so their difference is exactly the drift; neither table is locked
+        Map<Key, long[]> drift = snapshotTemplate.execute(status -> {
+            Map<Key, long[]> expected = recount();
+            for (SupportStat stat : statRepository.findAll()) {
+                long[] delta = expected.computeIfAbsent(new Key(stat.getDimension(), stat.getDimensionValue(), stat.getStatut()),
+                        k -> new long[2]);
+                delta[0] -= stat.getSupportCount();
+                delta[1] -= stat.getReviewDays();
+            }
+            expected.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+            return expected;
+        });
+        if (drift == null || drift.isEmpty()) {
+            return;
+        }
+        // Applied as relative corrections, which commute with the writes committed since the snapshot
+        transactionTemplate.executeWithoutResult(status -> write(drift));
+        corrections.increment(drift.size());
+        logger.info("Statistics reconciliation corrected {} counter rows", drift.size());
+    }
+
+    private Map<Key, long[]> recount() {
+        Map<Key, long[]> expected = new HashMap<>();
+        for (Object[] row : supportCoursRepository.countByStatutNiveauMatiereEnseignantDepartment(Statut.VALIDÉ)) {
+            long count = ((Number) row[5]).longValue();
+            long reviewDays = row[6] == null ? 0 : ((Number) row[6]).longValue();
+            for (Key key : keysOf((Statut) row[0], (Niveau) row[1], (String) row[2], (Long) row[3], (String) row[4])) {
+                long[] totals = expected.computeIfAbsent(key, k -> new long[2]);
+                totals[0] += count;
+                totals[1] += reviewDays;
+            }
+        }
+        return expected;
+    }
+
+    private static List<Key> keysOf(Statut statut, Niveau niveau, String matiere, Long enseignantId, String department) {
+        return List.of(
+                new Key(Dimension.ALL, "", statut),
+                new Key(Dimension.NIVEAU, niveau == null ? "" : niveau.name(), statut),
+                new Key(Dimension.MATIERE, matiere == null ? "" : matiere, statut),
+                new Key(Dimension.ENSEIGNANT, String.valueOf(enseignantId), statut),
+                new Key(Dimension.DEPARTMENT, department == null ? "" : department, statut));
+    }
+
+    private static long reviewDays(Statut statut, SupportCours support) {
+        if (statut != Statut.VALIDÉ || support.getDateDepot() == null || support.getDateValidation() == null) {
+            return 0;
+        }
+        return ChronoUnit.DAYS.between(support.getDateDepot(), support.getDateValidation());
+    }
+
+    private static List<StatGroupDto> nonEmpty(Map<Dimension, Map<String, StatGroupDto>> groups, Dimension dimension) {
+        List<StatGroupDto> result = new ArrayList<>();
+        groups.getOrDefault(dimension, Map.of()).values().stream()
+                .filter(group -> group.getTotal() > 0)
+                .forEach(result::add);
+        return result;
+    }
+
+    record Key(Dimension dimension, String value, Statut statut) implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER = Comparator.comparing(Key::dimension)
+                .thenComparing(Key::value)
+                .thenComparing(Key::statut);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.campushub.support.service;
+
+import com.campushub.support.repository.SupportCoursRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Gives a version to supports that have none. A NULL @Version cannot be incremented by Hibernate and would
+ * surface in ETags as "id-null", so this runs while the context starts, before any request is served.
+ */
+@Component
+public class SupportVersionBackfill implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SupportVersionBackfill.class);
+
+    private final SupportCoursRepository supportCoursRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public SupportVersionBackfill(SupportCoursRepository supportCoursRepository, PlatformTransactionManager transactionManager) {
+        this.supportCoursRepository = supportCoursRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        Integer backfilled = transactionTemplate.execute(status -> supportCoursRepository.backfillMissingVersions());
+        if (backfilled != null && backfilled > 0) {
+            logger.info("Backfilled version 0 on {} supports", backfilled);
+        }
+    }
+}
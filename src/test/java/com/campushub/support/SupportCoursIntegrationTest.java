@@ -1,22 +1,51 @@
 package com.campushub.support;
 
+import com.campushub.support.dto.BulkActionDto;
 import com.campushub.support.dto.CreateSupportCoursDto;
+import com.campushub.support.model.NotificationOutbox;
 import com.campushub.support.model.Statut;
+import com.campushub.support.model.SupportChange;
 import com.campushub.support.model.SupportCours;
+import com.campushub.support.repository.NotificationOutboxRepository;
+import com.campushub.support.repository.SupportChangeRepository;
 import com.campushub.support.repository.SupportCoursRepository;
+import com.campushub.support.service.ReviewQueue;
+import com.campushub.support.service.SupportSearchIndex;
+import com.campushub.support.service.SupportChangeFeed;
+import com.campushub.support.service.SupportStatistics;
+import com.campushub.support.service.SupportVersionBackfill;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import com.campushub.support.amqp.InMemoryAmqpConfiguration;
+import com.campushub.support.amqp.InMemoryRabbitTemplate;
+import com.campushub.support.config.RabbitMQConfig;
+import com.campushub.support.dto.SupportNotification;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,6 +59,7 @@ import com.campushub.support.security.WithMockCustomUser; // Added import
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@Import(InMemoryAmqpConfiguration.class) // No broker in the test environment
 @TestPropertySource(properties = "jwt.secret=c3b3f4d4a5e5b6c6d7e7f8a8b9c9d0e0f1a1b2c2d3e3f4a4b5c5d6e6f7a7b8c8") // Added for JWT secret during tests
 public class SupportCoursIntegrationTest {
 
@@ -42,6 +72,39 @@ public class SupportCoursIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private InMemoryRabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    @Autowired
+    private SupportSearchIndex searchIndex;
+
+    @Autowired
+    private SupportChangeRepository changeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SupportStatistics supportStatistics;
+
+    @Autowired
+    private ReviewQueue reviewQueue;
+
+    @Autowired
+    private SupportVersionBackfill versionBackfill;
+
+    @Autowired
+    private SupportChangeFeed changeFeed;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
 
     
 
@@ -54,6 +117,9 @@ public class SupportCoursIntegrationTest {
     @BeforeEach
     void setUp() {
         supportCoursRepository.deleteAll();
+        // Tests write through the repository directly, bypassing the service-level evictions
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        rabbitTemplate.reset();
         // User ID is now taken from CustomUserDetails in the principal
     }
 
@@ -65,12 +131,19 @@ public class SupportCoursIntegrationTest {
         createDto.setDescription("Description");
         createDto.setFichierUrl("http://example.com/file.pdf");
 
-        mockMvc.perform(post("/api/supports")
+        String created = mockMvc.perform(post("/api/supports")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(createDto)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.enseignantId").value(TEACHER_ID))
-                .andExpect(jsonPath("$.fichierUrl").value("http://example.com/file.pdf"));
+                .andExpect(jsonPath("$.fichierUrl").value("http://example.com/file.pdf"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Only the author is notified of a creation: no user-service lookup, delivered after commit
+        Long id = objectMapper.readTree(created).get("id").asLong();
+        SupportNotification notification = awaitNotification(id);
+        assertThat(notification.getRecipientUserIds()).containsExactly(TEACHER_ID);
+        awaitOutboxDelivered(id);
     }
 
     @Test
@@ -99,6 +172,16 @@ public class SupportCoursIntegrationTest {
         mockMvc.perform(post("/api/supports/" + support.getId() + "/submit"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.statut").value("SOUMIS"));
+
+        // Relayed asynchronously after commit; user-service is unreachable, so rather than notifying the teacher
+        // alone the row is held back for a retry, with the caller token kept to resolve the deans later
+        Long supportId = support.getId();
+        NotificationOutbox row = awaitOutboxRetry(supportId);
+        assertThat(row.getDeliveredAt()).isNull();
+        assertThat(row.getLeaseUntil()).isAfter(Instant.now());
+        assertThat(row.getToken()).isEqualTo("mock-jwt-token");
+        assertThat(rabbitTemplate.published(RabbitMQConfig.EXCHANGE_NAME, SupportNotification.class))
+                .noneMatch(notification -> notification.getSupportId().equals(supportId));
     }
 
     @Test
@@ -127,7 +210,7 @@ public class SupportCoursIntegrationTest {
 
         mockMvc.perform(get("/api/supports/pending"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].titre").value("Pending Support"));
+                .andExpect(jsonPath("$.items[0].titre").value("Pending Support"));
     }
 
     @Test
@@ -153,4 +236,484 @@ public class SupportCoursIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.statut").value("VALIDÉ"));
     }
+
+    @Test
+    void shouldPaginateAndFilterPublicListing() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            SupportCours support = new SupportCours();
+            support.setTitre("Cours " + i);
+            support.setDescription("Long description " + i);
+            support.setEnseignantId(TEACHER_ID);
+            support.setFichierUrl("http://test.url/cours" + i + ".pdf");
+            support.setStatut(i % 2 == 0 ? Statut.VALIDÉ : Statut.BROUILLON);
+            supportCoursRepository.save(support);
+        }
+
+        String firstPage = mockMvc.perform(get("/api/supports").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].titre").value("Cours 4"))
+                .andExpect(jsonPath("$.items[0].description").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").isNumber())
+                .andReturn().getResponse().getContentAsString();
+        Long cursor = objectMapper.readTree(firstPage).get("nextCursor").asLong();
+
+        mockMvc.perform(get("/api/supports").param("size", "2").param("cursor", cursor.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].titre").value("Cours 2"));
+
+        mockMvc.perform(get("/api/supports").param("statut", "VALIDÉ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @WithMockCustomUser(id = 3L, username = "dean", authorities = {"ROLE_DEAN"})
+    void shouldEvictCachedSupportOnWorkflowTransition() throws Exception {
+        SupportCours support = new SupportCours();
+        support.setTitre("Cached Support");
+        support.setEnseignantId(TEACHER_ID);
+        support.setStatut(Statut.SOUMIS);
+        support.setFichierUrl("http://test.url/cached.pdf");
+        support = supportCoursRepository.save(support);
+
+        mockMvc.perform(get("/api/supports/" + support.getId()))
+                .andExpect(jsonPath("$.statut").value("SOUMIS"));
+        mockMvc.perform(get("/api/supports").param("statut", "SOUMIS"))
+                .andExpect(jsonPath("$.items.length()").value(1));
+        assertThat(cacheManager.getCache("supports").get(support.getId())).isNotNull();
+
+        mockMvc.perform(post("/api/supports/" + support.getId() + "/validate")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("OK"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/supports/" + support.getId()))
+                .andExpect(jsonPath("$.statut").value("VALIDÉ"));
+        mockMvc.perform(get("/api/supports").param("statut", "SOUMIS"))
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 3L, username = "dean", authorities = {"ROLE_DEAN"})
+    void shouldRestrictActuatorToAdminsExceptHealth() throws Exception {
+        // Public, whatever its status (DOWN without a broker)
+        assertThat(mockMvc.perform(get("/actuator/health")).andReturn().getResponse().getStatus()).isNotEqualTo(403);
+        mockMvc.perform(get("/actuator/caches"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/actuator/caches"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockCustomUser(id = 4L, username = "admin", authorities = {"ROLE_ADMIN"})
+    void shouldExposeActuatorToAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/caches"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cacheManagers.cacheManager.caches.supports").exists());
+    }
+
+    @Test
+    @WithMockCustomUser(id = 3L, username = "dean", authorities = {"ROLE_DEAN"})
+    void shouldValidateManySupportsInOneRequest() throws Exception {
+        SupportCours first = saveSupport("Bulk 1", Statut.SOUMIS);
+        SupportCours second = saveSupport("Bulk 2", Statut.SOUMIS);
+        SupportCours draft = saveSupport("Bulk draft", Statut.BROUILLON);
+        Long missingId = draft.getId() + 100;
+
+        BulkActionDto bulkDto = new BulkActionDto();
+        bulkDto.setIds(List.of(first.getId(), draft.getId(), missingId, second.getId(), first.getId()));
+        bulkDto.setRemarque("Bulk OK");
+
+        mockMvc.perform(post("/api/supports/bulk/validate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bulkDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].outcome").value("OK"))
+                .andExpect(jsonPath("$[0].statut").value("VALIDÉ"))
+                .andExpect(jsonPath("$[1].outcome").value("INVALID_TRANSITION"))
+                .andExpect(jsonPath("$[1].statut").value("BROUILLON"))
+                .andExpect(jsonPath("$[2].outcome").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[3].outcome").value("OK"));
+
+        SupportCours validated = supportCoursRepository.findById(second.getId()).orElseThrow();
+        assertThat(validated.getStatut()).isEqualTo(Statut.VALIDÉ);
+        assertThat(validated.getRemarqueDoyen()).isEqualTo("Bulk OK");
+        assertThat(validated.getDateValidation()).isNotNull();
+        assertThat(supportCoursRepository.findById(draft.getId()).orElseThrow().getStatut()).isEqualTo(Statut.BROUILLON);
+        assertThat(outboxRepository.findAll())
+                .filteredOn(row -> "validateSupports".equals(row.getOperation()))
+                .extracting(row -> row.getSupportId())
+                .containsExactlyInAnyOrder(first.getId(), second.getId());
+
+        // Above supports.bulk.max-ids the request is refused as a whole
+        bulkDto.setIds(LongStream.rangeClosed(1, 501).boxed().toList());
+        mockMvc.perform(post("/api/supports/bulk/reject")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(bulkDto)))
+                .andExpect(status().isBadRequest());
+        assertThat(supportCoursRepository.findById(first.getId()).orElseThrow().getStatut()).isEqualTo(Statut.VALIDÉ);
+    }
+
+    @Test
+    @WithMockCustomUser(id = 3L, username = "dean", authorities = {"ROLE_DEAN"})
+    void shouldReplayRetriedTransitionAndRejectConflictingOnes() throws Exception {
+        SupportCours support = saveSupport("Retried", Statut.SOUMIS);
+        SupportCours stale = supportCoursRepository.findById(support.getId()).orElseThrow();
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/supports/" + support.getId() + "/validate")
+                            .header("Idempotency-Key", "validate-retried-1")
+                            .contentType(MediaType.TEXT_PLAIN)
+                            .content("OK"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.statut").value("VALIDÉ"));
+        }
+        // A second dean acting on the already validated support
+        mockMvc.perform(post("/api/supports/" + support.getId() + "/reject")
+                        .header("Idempotency-Key", "reject-late-1")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("Non"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/supports/" + support.getId() + "/validate")
+                        .header("Idempotency-Key", " ")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("OK"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(outboxRepository.findAll())
+                .filteredOn(row -> support.getId().equals(row.getSupportId()))
+                .extracting(row -> row.getOperation())
+                .containsExactly("validateSupport");
+        assertThat(meterRegistry.get("supports.transitions")
+                .tags("operation", "validateSupport", "from", "VALIDÉ", "to", "VALIDÉ", "outcome", "replayed")
+                .counter().count()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get("supports.service").tag("method", "rejectSupport")
+                .tag("exception", "InvalidTransitionException").timer().count()).isGreaterThanOrEqualTo(1);
+        assertThat(supportCoursRepository.findById(support.getId()).orElseThrow().getStatut()).isEqualTo(Statut.VALIDÉ);
+        // A write based on the copy read before the validation loses against the version check
+        stale.setStatut(Statut.REJETÉ);
+        assertThatThrownBy(() -> supportCoursRepository.save(stale))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    @WithMockCustomUser(id = 3L, username = "dean", authorities = {"ROLE_DEAN", "ROLE_ADMIN"})
+    void shouldMaintainDashboardStatisticsAcrossTransitions() throws Exception {
+        SupportCours toValidate = saveSupport("Stats validate", Statut.SOUMIS);
+        toValidate.setMatiere("Algèbre");
+        toValidate.setDateDepot(LocalDate.now().minusDays(4));
+        supportCoursRepository.save(toValidate);
+        SupportCours toReject = saveSupport("Stats reject", Statut.SOUMIS);
+        SupportCours toDelete = saveSupport("Stats delete", Statut.BROUILLON);
+        // Written behind the service's back: picked up by the reconciliation
+        supportStatistics.reconcile();
+
+        mockMvc.perform(post("/api/supports/" + toValidate.getId() + "/validate")
+                        .contentType(MediaType.TEXT_PLAIN).content("OK"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/supports/" + toReject.getId() + "/reject")
+                        .contentType(MediaType.TEXT_PLAIN).content("Non"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/supports/" + toDelete.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/supports/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.overall.total").value(2))
+                .andExpect(jsonPath("$.overall.byStatut.VALIDÉ").value(1))
+                .andExpect(jsonPath("$.overall.byStatut.REJETÉ").value(1))
+                .andExpect(jsonPath("$.overall.byStatut.BROUILLON").doesNotExist())
+                .andExpect(jsonPath("$.overall.averageReviewDays").value(4.0))
+                .andExpect(jsonPath("$.byMatiere[?(@.value == 'Algèbre')].byStatut.VALIDÉ").value(1))
+                .andExpect(jsonPath("$.byEnseignant[0].value").value(String.valueOf(TEACHER_ID)))
+                .andExpect(jsonPath("$.byEnseignant[0].total").value(2));
+
+        saveSupport("Stats direct", Statut.BROUILLON);
+        double corrected = meterRegistry.counter("supports.stats.corrections").count();
+        supportStatistics.reconcile();
+        assertThat(meterRegistry.counter("supports.stats.corrections").count()).isGreaterThan(corrected);
+        mockMvc.perform(get("/api/supports/stats"))
+                .andExpect(jsonPath("$.overall.total").value(3))
+                .andExpect(jsonPath("$.overall.byStatut.BROUILLON").value(1));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 4L, username = "admin", authorities = {"ROLE_ADMIN"})
+    void shouldServeReviewQueueOldestFirstAndArbitrateClaims() throws Exception {
+        SupportCours newest = saveQueued("Queue newest", "Informatique", 1);
+        SupportCours oldest = saveQueued("Queue oldest", "Informatique", 5);
+        SupportCours middle = saveQueued("Queue middle", "Informatique", 3);
+        saveQueued("Queue other department", "Mathématiques", 10);
+
+        String firstPage = mockMvc.perform(get("/api/supports/review-queue")
+                        .param("department", "Informatique").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(oldest.getId()))
+                .andExpect(jsonPath("$.items[1].id").value(middle.getId()))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+        mockMvc.perform(get("/api/supports/review-queue")
+                        .param("department", "Informatique").param("size", "2").param("cursor", cursor))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(newest.getId()))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        // Another dean holds the oldest support: it is skipped by claim-next and cannot be claimed directly
+        assertThat(reviewQueue.claim(oldest.getId(), "Informatique", 99L)).isPresent();
+        mockMvc.perform(post("/api/supports/" + oldest.getId() + "/claim"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/api/supports/review-queue")
+                        .param("department", "Informatique").param("available", "true"))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(middle.getId()));
+        mockMvc.perform(post("/api/supports/review-queue/claim").param("department", "Informatique"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(middle.getId()))
+                .andExpect(jsonPath("$.claimedBy").value(ADMIN_ID));
+
+        // Releasing makes the support available again; a support no longer submitted cannot be claimed
+        mockMvc.perform(delete("/api/supports/" + middle.getId() + "/claim"))
+                .andExpect(status().isNoContent());
+        assertThat(supportCoursRepository.findById(middle.getId()).orElseThrow().getClaimedBy()).isNull();
+        SupportCours draft = saveSupport("Queue draft", Statut.BROUILLON);
+        mockMvc.perform(post("/api/supports/" + draft.getId() + "/claim"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockCustomUser(id = 1L, username = "teacher", authorities = {"ROLE_TEACHER"})
+    void shouldFindCreatedSupportThroughSearch() throws Exception {
+        CreateSupportCoursDto createDto = new CreateSupportCoursDto();
+        createDto.setTitre("Cryptographie appliquée");
+        createDto.setDescription("Chiffrement symétrique et signatures");
+        createDto.setFichierUrl("http://example.com/crypto.pdf");
+        createDto.setMatiere("Sécurité");
+        mockMvc.perform(post("/api/supports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated());
+        searchIndex.refresh();
+
+        mockMvc.perform(get("/api/supports/search").param("q", "securite crypto"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalHits").value(1))
+                .andExpect(jsonPath("$.items[0].titre").value("Cryptographie appliquée"))
+                .andExpect(jsonPath("$.items[0].statut").value("BROUILLON"));
+        mockMvc.perform(get("/api/supports/search").param("q", "crypto").param("statut", "VALIDÉ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 1L, username = "teacher", authorities = {"ROLE_TEACHER", "ROLE_ADMIN"})
+    void shouldServeChangesSinceTokenWithTombstones() throws Exception {
+        Long head = changeRepository.findHead();
+        String since = head == null ? "0" : head.toString();
+        Long kept = createSupportThroughApi("Feed kept");
+        Long deleted = createSupportThroughApi("Feed deleted");
+        mockMvc.perform(post("/api/supports/" + kept + "/submit")).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/supports/" + deleted)).andExpect(status().isNoContent());
+
+        String page = mockMvc.perform(get("/api/supports/changes").param("since", since))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].supportId").value(kept))
+                .andExpect(jsonPath("$.items[0].deleted").value(false))
+                .andExpect(jsonPath("$.items[0].support.statut").value("SOUMIS"))
+                .andExpect(jsonPath("$.items[1].supportId").value(deleted))
+                .andExpect(jsonPath("$.items[1].deleted").value(true))
+                .andExpect(jsonPath("$.items[1].support").doesNotExist())
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andReturn().getResponse().getContentAsString();
+        long nextToken = objectMapper.readTree(page).get("nextToken").asLong();
+
+        mockMvc.perform(get("/api/supports/changes").param("since", since).param("limit", "1"))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].supportId").value(kept))
+                .andExpect(jsonPath("$.hasMore").value(true));
+        mockMvc.perform(get("/api/supports/changes").param("since", Long.toString(nextToken)))
+                .andExpect(jsonPath("$.items.length()").value(0))
+                .andExpect(jsonPath("$.nextToken").value(nextToken));
+    }
+
+    @Test
+    @WithMockCustomUser(id = 1L, username = "teacher", authorities = {"ROLE_TEACHER"})
+    void shouldSeedSupportsMissingFromANonEmptyJournal() throws Exception {
+        // A replica already serving has journaled a write; older supports still have no entry
+        createSupportThroughApi("Feed journaled");
+        Long unjournaled = saveSupport("Feed unjournaled", Statut.VALIDÉ).getId();
+        Long head = changeRepository.findHead();
+
+        changeFeed.backfill();
+        changeFeed.backfill();
+
+        assertThat(changeRepository.findByIdGreaterThanOrderByIdAsc(head, PageRequest.of(0, 10)))
+                .extracting(SupportChange::getSupportId)
+                .containsExactly(unjournaled);
+    }
+
+    @Test
+    @WithMockCustomUser(id = 4L, username = "admin", authorities = {"ROLE_ADMIN"})
+    void shouldStreamCatalogExportAsNdjsonAndCsv() throws Exception {
+        SupportCours first = saveSupport("Export 1", Statut.VALIDÉ);
+        first.setDescription("Chapitre 1, \"intro\"\nsuite");
+        supportCoursRepository.save(first);
+        saveSupport("Export 2", Statut.BROUILLON);
+
+        String ndjson = mockMvc.perform(get("/api/supports/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("description").asText()).isEqualTo("Chapitre 1, \"intro\"\nsuite");
+        assertThat(objectMapper.readTree(lines[1]).get("titre").asText()).isEqualTo("Export 2");
+
+        String csv = mockMvc.perform(get("/api/supports/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(csv).startsWith("id,titre,description,");
+        assertThat(csv).contains(",Export 1,\"Chapitre 1, \"\"intro\"\"\nsuite\",");
+    }
+
+    @Test
+    void shouldAnswerConditionalGetsWithNotModified() throws Exception {
+        SupportCours support = saveSupport("Conditional", Statut.VALIDÉ);
+
+        MockHttpServletResponse first = mockMvc.perform(get("/api/supports/" + support.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + support.getId() + "-0\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"))
+                .andReturn().getResponse();
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        String lastModified = first.getHeader(HttpHeaders.LAST_MODIFIED);
+        assertThat(lastModified).isNotNull();
+
+        mockMvc.perform(get("/api/supports/" + support.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/supports/" + support.getId()).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        support.setTitre("Conditional v2");
+        supportCoursRepository.save(support);
+        cacheManager.getCache("supports").evict(support.getId());
+        mockMvc.perform(get("/api/supports/" + support.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + support.getId() + "-1\""))
+                .andExpect(jsonPath("$.titre").value("Conditional v2"));
+
+        String pageEtag = mockMvc.perform(get("/api/supports"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, public"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(pageEtag).matches("W/\"[0-9a-f]{64}\"");
+        mockMvc.perform(get("/api/supports").header(HttpHeaders.IF_NONE_MATCH, pageEtag))
+                .andExpect(status().isNotModified());
+
+        support = supportCoursRepository.findById(support.getId()).orElseThrow();
+        support.setTitre("Conditional v3");
+        supportCoursRepository.save(support);
+        cacheManager.getCache("supportPages").clear();
+        String changedPageEtag = mockMvc.perform(get("/api/supports").header(HttpHeaders.IF_NONE_MATCH, pageEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].titre").value("Conditional v3"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changedPageEtag).isNotEqualTo(pageEtag);
+    }
+
+    @Test
+    void shouldGiveAVersionToRowsWrittenBeforeTheVersionColumn() {
+        // A row inserted without the column gets the schema default; one left NULL by a schema update
+        // that added the column without a default is fixed at startup
+        jdbcTemplate.update("insert into support_cours (titre, fichier_url, enseignant_id, statut) values ('Ancien', 'http://f/1', 1, 'VALIDÉ')");
+        jdbcTemplate.execute("alter table support_cours alter column version set null");
+        try {
+            jdbcTemplate.update("insert into support_cours (titre, fichier_url, enseignant_id, statut, version) values ('Nul', 'http://f/2', 1, 'VALIDÉ', null)");
+            versionBackfill.afterPropertiesSet();
+        } finally {
+            jdbcTemplate.execute("alter table support_cours alter column version set not null");
+        }
+
+        assertThat(supportCoursRepository.findAll()).extracting(SupportCours::getVersion).containsOnly(0L);
+        SupportCours support = supportCoursRepository.findAll().get(1);
+        support.setTitre("Modifié");
+        assertThat(supportCoursRepository.save(support).getVersion()).isEqualTo(1L);
+    }
+
+    private Long createSupportThroughApi(String titre) throws Exception {
+        CreateSupportCoursDto createDto = new CreateSupportCoursDto();
+        createDto.setTitre(titre);
+        createDto.setFichierUrl("http://example.com/" + titre.replace(' ', '-') + ".pdf");
+        String created = mockMvc.perform(post("/api/supports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(created).get("id").asLong();
+    }
+
+    private SupportCours saveSupport(String titre, Statut statut) {
+        SupportCours support = new SupportCours();
+        support.setTitre(titre);
+        support.setEnseignantId(TEACHER_ID);
+        support.setStatut(statut);
+        support.setFichierUrl("http://test.url/" + titre.replace(' ', '-') + ".pdf");
+        return supportCoursRepository.save(support);
+    }
+
+    // No user service in tests: the department a submit would capture is set directly
+    private SupportCours saveQueued(String titre, String department, int daysAgo) {
+        SupportCours support = saveSupport(titre, Statut.SOUMIS);
+        support.setDepartment(department);
+        support.setDateDepot(LocalDate.now().minusDays(daysAgo));
+        return supportCoursRepository.save(support);
+    }
+
+    // Matched by support: outbox rows of earlier tests may still be relayed after reset()
+    private SupportNotification awaitNotification(Long supportId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            List<SupportNotification> notifications = rabbitTemplate.published(RabbitMQConfig.EXCHANGE_NAME, SupportNotification.class);
+            for (SupportNotification notification : notifications) {
+                if (notification.getSupportId().equals(supportId)) {
+                    return notification;
+                }
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("No notification published to " + RabbitMQConfig.EXCHANGE_NAME);
+    }
+
+    private NotificationOutbox awaitOutboxRetry(Long supportId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Optional<NotificationOutbox> failed = outboxRepository.findAll().stream()
+                    .filter(row -> row.getSupportId().equals(supportId) && row.getAttempts() > 0)
+                    .findFirst();
+            if (failed.isPresent()) {
+                return failed.get();
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Outbox row of support " + supportId + " was not attempted");
+    }
+
+    private void awaitOutboxDelivered(Long supportId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            boolean delivered = outboxRepository.findAll().stream()
+                    .filter(row -> row.getSupportId().equals(supportId))
+                    .allMatch(row -> row.getDeliveredAt() != null && row.getToken() == null);
+            if (delivered) {
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Outbox rows of support " + supportId + " were not marked delivered");
+    }
 }
@@ -0,0 +1,18 @@
+package com.campushub.support.amqp;
+
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+// Replaces the broker-backed RabbitTemplate; listener containers stay stopped in tests
+@TestConfiguration
+public class InMemoryAmqpConfiguration {
+
+    @Bean
+    @Primary
+    public InMemoryRabbitTemplate inMemoryRabbitTemplate(ConnectionFactory connectionFactory, MessageConverter messageConverter) {
+        return new InMemoryRabbitTemplate(connectionFactory, messageConverter);
+    }
+}
@@ -0,0 +1,83 @@
+package com.campushub.support.amqp;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SmartMessageConverter;
+import org.springframework.core.ParameterizedTypeReference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Broker stand-in for tests: records every published message and delivers it synchronously
+ * to the consumers subscribed to the target exchange. Messages go through the real
+ * MessageConverter, so payloads are serialized exactly as they would be for RabbitMQ.
+ */
+public class InMemoryRabbitTemplate extends RabbitTemplate {
+
+    public record Published(String exchange, String routingKey, Message message) {
+    }
+
+    private final List<Published> published = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Consumer<Message>>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingNacks = new AtomicInteger();
+
+    // The connection factory only satisfies RabbitTemplate's checks, no connection is ever opened
+    public InMemoryRabbitTemplate(ConnectionFactory connectionFactory, MessageConverter messageConverter) {
+        super(connectionFactory);
+        setMessageConverter(messageConverter);
+    }
+
+    // A nacked message is dropped; every other one is confirmed as soon as it has been delivered in memory
+    @Override
+    public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+        if (pendingNacks.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            if (correlationData != null) {
+                correlationData.getFuture().complete(new CorrelationData.Confirm(false, "simulated nack"));
+            }
+            return;
+        }
+        published.add(new Published(exchange, routingKey, message));
+        subscribers.getOrDefault(exchange, List.of()).forEach(subscriber -> subscriber.accept(message));
+        if (correlationData != null) {
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+        }
+    }
+
+    public void nackNext(int count) {
+        pendingNacks.set(count);
+    }
+
+    public <T> void subscribe(String exchange, Class<T> type, Consumer<T> consumer) {
+        subscribers.computeIfAbsent(exchange, key -> new CopyOnWriteArrayList<>())
+                .add(message -> consumer.accept(convert(message, type)));
+    }
+
+    public <T> List<T> published(String exchange, Class<T> type) {
+        return published.stream()
+                .filter(p -> p.exchange().equals(exchange))
+                .map(p -> convert(p.message(), type))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    public void reset() {
+        published.clear();
+        subscribers.clear();
+        pendingNacks.set(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T convert(Message message, Class<T> type) {
+        return (T) ((SmartMessageConverter) getMessageConverter())
+                .fromMessage(message, ParameterizedTypeReference.forType(type));
+    }
+}
@@ -0,0 +1,63 @@
+package com.campushub.support.client;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserDirectoryCacheTest {
+
+    // Slow user-service stand-in counting the remote calls it receives
+    static class CountingUserServiceClient extends UserServiceClient {
+        final AtomicInteger userLookups = new AtomicInteger();
+        final AtomicInteger departmentLookups = new AtomicInteger();
+
+        CountingUserServiceClient() {
+            super(WebClient.builder(),
+                    new ReactiveResilience4JCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults()),
+                    new SimpleMeterRegistry(), "http://localhost", Duration.ofSeconds(1), 0, Duration.ofMillis(100), Duration.ZERO);
+        }
+
+        @Override
+        public Mono<UserDto> fetchUserById(Long userId, String token) {
+            userLookups.incrementAndGet();
+            return Mono.just(new UserDto(userId, "teacher", null, null, "TEACHER", "Informatique"))
+                    .delayElement(Duration.ofMillis(100));
+        }
+
+        @Override
+        public Mono<List<UserDto>> fetchUsersByDepartment(String department, String token) {
+            departmentLookups.incrementAndGet();
+            return Mono.just(List.of(new UserDto(3L, "dean", null, null, "DEAN", department)))
+                    .delayElement(Duration.ofMillis(100));
+        }
+    }
+
+    @Test
+    void concurrentLookupsForSameDepartmentShareOneFetch() {
+        CountingUserServiceClient client = new CountingUserServiceClient();
+        UserDirectoryCache cache = new UserDirectoryCache(client, new SimpleMeterRegistry(),
+                Duration.ofMinutes(10), 1000, Duration.ofSeconds(5));
+
+        List<CompletableFuture<List<UserDto>>> lookups = IntStream.range(0, 50)
+                .mapToObj(i -> cache.departmentMembersOf(1L, "token"))
+                .collect(Collectors.toList());
+        CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0])).join();
+
+        assertThat(lookups).allSatisfy(lookup -> assertThat(lookup.join()).extracting(UserDto::getId).containsExactly(3L));
+        assertThat(client.userLookups).hasValue(1);
+        assertThat(client.departmentLookups).hasValue(1);
+    }
+}
@@ -0,0 +1,142 @@
+package com.campushub.support.client;
+
+import com.campushub.support.config.WebClientConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserServiceClientTest {
+
+    // One scripted answer per incoming request; once the script is exhausted every request gets a fast 200
+    record Reply(int status, long delayMillis) {}
+
+    private final Queue<Reply> script = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private UserServiceClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/users/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        // No hedging by default: under suite load a slow scripted answer would otherwise race a hedge. The
+        // attempt timeout leaves room for the first (cold) request of the run.
+        client = newClient(Duration.ZERO);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void retriesTransientFailures() {
+        script.add(new Reply(503, 0));
+        script.add(new Reply(503, 0));
+
+        assertThat(client.fetchUserById(7L, "token").block().getId()).isEqualTo(7L);
+        assertThat(requests).hasValue(3);
+        // One timed call per lookup (warm-up included), whatever the number of attempts
+        assertThat(meterRegistry.get("user.service.calls").tags("operation", "user-by-id", "outcome", "success")
+                .timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotRetryClientErrors() {
+        script.add(new Reply(404, 0));
+
+        assertThatThrownBy(() -> client.fetchUserById(7L, "token").block())
+                .isInstanceOf(WebClientResponseException.NotFound.class);
+        assertThat(requests).hasValue(1);
+        assertThat(meterRegistry.get("user.service.calls").tags("operation", "user-by-id", "outcome", "client_error")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void hedgesSlowRequests() {
+        client = newClient(Duration.ofMillis(100));
+        script.add(new Reply(200, 2_000));
+
+        long start = System.nanoTime();
+        assertThat(client.fetchUserById(7L, "token").block().getId()).isEqualTo(7L);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1_500));
+        assertThat(meterRegistry.counter("user.service.hedges").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void opensCircuitAfterRepeatedFailures() {
+        for (int i = 0; i < 3; i++) {
+            script.add(new Reply(503, 0));
+        }
+        // Sliding window of 4 calls, evaluated from 2: the warm-up success plus this failure reach the 50% threshold
+        assertThatThrownBy(() -> client.fetchUserById(7L, "token").block())
+                .isInstanceOf(WebClientResponseException.ServiceUnavailable.class);
+        int sent = requests.get();
+
+        assertThatThrownBy(() -> client.fetchUserById(7L, "token").block())
+                .isInstanceOf(CallNotPermittedException.class);
+        assertThat(requests).hasValue(sent);
+        assertThat(meterRegistry.get("user.service.calls").tags("outcome", "circuit_open").timer().count()).isEqualTo(1);
+    }
+
+    private UserServiceClient newClient(Duration hedgeDelay) {
+        ReactiveResilience4JCircuitBreakerFactory factory =
+                new ReactiveResilience4JCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults());
+        new WebClientConfig().userServiceCircuitBreaker(50, 4, Duration.ofMinutes(1), Duration.ofSeconds(5)).customize(factory);
+        meterRegistry = new SimpleMeterRegistry();
+        UserServiceClient newClient = new UserServiceClient(WebClient.builder(), factory, meterRegistry,
+                "http://localhost:" + server.getAddress().getPort(),
+                Duration.ofSeconds(3), 2, Duration.ofMillis(10), hedgeDelay);
+        // Warm the connection pool so that only scripted delays can trigger a hedge
+        newClient.fetchUserById(1L, "token").block();
+        requests.set(0);
+        return newClient;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        Reply reply = script.poll();
+        try (exchange) {
+            if (reply != null) {
+                Thread.sleep(reply.delayMillis());
+                if (reply.status() != 200) {
+                    exchange.sendResponseHeaders(reply.status(), -1);
+                    return;
+                }
+            }
+            String id = exchange.getRequestURI().getPath().substring("/api/users/".length());
+            byte[] json = ("{\"id\":" + id + ",\"username\":\"user" + id + "\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, json.length);
+            exchange.getResponseBody().write(json);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.campushub.support.config;
+
+import com.campushub.support.model.SupportCours;
+import com.campushub.support.security.JwtPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class NativeConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void registersWhatTheAotProcessingCannotInfer() {
+        new NativeConfig.Hints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(SupportCours.class)
+                .withMemberCategories(MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(JwtPrincipal.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Deserializer")).accepts(hints);
+    }
+
+    @Test
+    void jjwtTypesExistInTheCurrentVersion() {
+        // Registered by name: a renamed class after an upgrade would only fail in the native image
+        for (String type : NativeConfig.JJWT_TYPES) {
+            assertThatCode(() -> Class.forName(type)).as(type).doesNotThrowAnyException();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.campushub.support.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-endpoint latency samples, summarized as throughput and percentiles once the run is over
+public class LatencyRecorder {
+
+    public record EndpointStats(String endpoint, long requests, long errors, double throughputPerSecond,
+                                double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void add(long value, boolean error) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+    }
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long nanos, boolean error) {
+        samples.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, error);
+    }
+
+    public Map<String, EndpointStats> summarize(Duration elapsed) {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        new TreeMap<>(samples).forEach((endpoint, endpointSamples) ->
+                stats.put(endpoint, stats(endpoint, endpointSamples.sorted(), endpointSamples.errors(), elapsed)));
+        return stats;
+    }
+
+    // All endpoints together
+    public EndpointStats overall(Duration elapsed) {
+        long[] all = samples.values().stream()
+                .flatMapToLong(endpointSamples -> Arrays.stream(endpointSamples.sorted()))
+                .sorted()
+                .toArray();
+        long errors = samples.values().stream().mapToLong(Samples::errors).sum();
+        return stats("ALL", all, errors, elapsed);
+    }
+
+    private static EndpointStats stats(String endpoint, long[] sorted, long errors, Duration elapsed) {
+        return new EndpointStats(endpoint, sorted.length, errors, sorted.length / (elapsed.toNanos() / 1e9),
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
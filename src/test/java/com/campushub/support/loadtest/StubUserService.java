@@ -0,0 +1,100 @@
+package com.campushub.support.loadtest;
+
+import com.campushub.support.client.UserDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Stand-in for campushub-user-service on a local port, serving the two endpoints used by
+ * UserServiceClient. User n belongs to department "DEP-(n % departments)"; every tenth user is a dean.
+ * Each response is delayed by the configured latency and fails with 503 at the configured rate.
+ */
+public class StubUserService implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Duration latency;
+    private final double failureRate;
+    private final int departments;
+    private final int usersPerDepartment;
+    private final AtomicLong requests = new AtomicLong();
+
+    public StubUserService(Duration latency, double failureRate, int departments, int usersPerDepartment) throws IOException {
+        this.latency = latency;
+        this.failureRate = failureRate;
+        this.departments = departments;
+        this.usersPerDepartment = usersPerDepartment;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/users/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try (exchange) {
+            Thread.sleep(latency.toMillis());
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            String path = exchange.getRequestURI().getPath().substring("/api/users/".length());
+            Object body;
+            if (path.startsWith("department/")) {
+                String department = path.substring("department/".length());
+                int index = Integer.parseInt(department.substring("DEP-".length()));
+                body = LongStream.range(0, usersPerDepartment)
+                        .mapToObj(n -> user(n * departments + index))
+                        .toList();
+            } else {
+                body = user(Long.parseLong(path));
+            }
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, json.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(json);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            exchange.sendResponseHeaders(404, -1);
+        }
+    }
+
+    private UserDto user(long id) {
+        String role = id % 10 == 0 ? "DEAN" : "TEACHER";
+        return new UserDto(id, "user" + id, "User " + id, "user" + id + "@campushub.local", role, "DEP-" + (id % departments));
+    }
+
+    public static List<Long> deanIds(int count) {
+        return LongStream.rangeClosed(1, count).map(n -> n * 10).boxed().toList();
+    }
+}
@@ -0,0 +1,316 @@
+package com.campushub.support.loadtest;
+
+import com.campushub.support.amqp.InMemoryAmqpConfiguration;
+import com.campushub.support.amqp.InMemoryRabbitTemplate;
+import com.campushub.support.config.RabbitMQConfig;
+import com.campushub.support.dto.SupportNotification;
+import com.campushub.support.model.Niveau;
+import com.campushub.support.model.Statut;
+import com.campushub.support.model.SupportCours;
+import com.campushub.support.repository.SupportCoursRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.xml.bind.DatatypeConverter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Self-contained load test: the service runs on a random port against H2 in MySQL mode, the in-memory
+ * broker stand-in and StubUserService (reached through the load-balanced client). A fixed number of workers run a mix of explore reads and create/submit/validate flows with
+ * real JWTs; throughput and latency percentiles per endpoint are printed and written to
+ * target/loadtest-report.json. With several concurrency levels the report also gives the highest
+ * sustainable one, to compare the platform- and virtual-thread modes. Excluded from the default build, run with:
+ * mvn -Pload-test test [-Dloadtest.concurrency=32 -Dloadtest.duration=PT60S -Dloadtest.user-service.latency=PT0.05S
+ * -Dloadtest.user-service.failure-rate=0.05]
+ * mvn -Pload-test,java21 test -Dloadtest.concurrency=64,256,1024 -Dspring.threads.virtual.enabled=true
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "jwt.secret=" + SupportLoadTest.SECRET,
+        "spring.datasource.url=jdbc:h2:mem:support_loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.cloud.discovery.enabled=true", // the load balancer's client configuration requires it
+        "logging.level.root=WARN"
+})
+@Import({InMemoryAmqpConfiguration.class, SupportLoadTest.UserServiceInstance.class})
+public class SupportLoadTest {
+
+    static final String SECRET = "c3b3f4d4a5e5b6c6d7e7f8a8b9c9d0e0f1a1b2c2d3e3f4a4b5c5d6e6f7a7b8c8";
+
+    // A comma-separated list runs one measurement per level, e.g. 16,64,256,1024
+    private static final List<Integer> CONCURRENCY_LEVELS = Arrays.stream(System.getProperty("loadtest.concurrency", "16").split(","))
+            .map(String::trim).map(Integer::valueOf).toList();
+    // A level is sustainable when it completes without errors and its overall p99 stays under this target
+    private static final Duration P99_TARGET = Duration.parse(System.getProperty("loadtest.p99-target", "PT1S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("loadtest.duration", "PT20S"));
+    private static final Duration WARMUP = Duration.parse(System.getProperty("loadtest.warmup", "PT5S"));
+    private static final int SEED_SUPPORTS = Integer.getInteger("loadtest.seed-supports", 2000);
+    private static final int DEPARTMENTS = 20;
+
+    private static final StubUserService USER_SERVICE = startUserService();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SupportCoursRepository supportCoursRepository;
+
+    @Autowired
+    private InMemoryRabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ConcurrentLinkedQueue<Long> submittedIds = new ConcurrentLinkedQueue<>();
+    private List<Long> seededIds;
+    private List<String> teacherTokens;
+    private List<String> deanTokens;
+
+    // Resolves lb://campushub-user-service to the stub. The instance declares its scheme like Eureka
+    // instances do; simple discovery instances have none, which would leave the lb scheme in the URL.
+    // Public: the AOT-generated load balancer client specification (mvn -PnativeTest) references both classes
+    @TestConfiguration
+    @LoadBalancerClient(name = "campushub-user-service", configuration = UserServiceInstance.Supplier.class)
+    public static class UserServiceInstance {
+
+        public static class Supplier {
+
+            @Bean
+            public ServiceInstanceListSupplier userServiceInstances() {
+                URI uri = URI.create(USER_SERVICE.baseUrl());
+                return ServiceInstanceListSuppliers.from("campushub-user-service",
+                        new DefaultServiceInstance("user-service-stub", "campushub-user-service", uri.getHost(), uri.getPort(), false) {
+                            @Override
+                            public String getScheme() {
+                                return "http";
+                            }
+                        });
+            }
+        }
+    }
+
+    @AfterAll
+    static void stopUserService() {
+        USER_SERVICE.close();
+    }
+
+    @Test
+    void runMixedWorkload() throws Exception {
+        seed();
+        teacherTokens = LongStream.rangeClosed(1, 100).filter(id -> id % 10 != 0)
+                .mapToObj(id -> token(id, "teacher" + id, "teacher")).toList();
+        deanTokens = StubUserService.deanIds(DEPARTMENTS).stream()
+                .map(id -> token(id, "dean" + id, "dean")).toList();
+
+        String threads = Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform";
+        List<Map<String, Object>> levels = new ArrayList<>();
+        Integer maxSustainable = null;
+        for (int concurrency : CONCURRENCY_LEVELS) {
+            run(concurrency, WARMUP, new LatencyRecorder());
+            LatencyRecorder recorder = new LatencyRecorder();
+            Duration elapsed = run(concurrency, DURATION, recorder);
+            Map<String, LatencyRecorder.EndpointStats> report = recorder.summarize(elapsed);
+            LatencyRecorder.EndpointStats overall = recorder.overall(elapsed);
+            boolean sustainable = overall.errors() == 0 && overall.p99Millis() <= P99_TARGET.toMillis();
+            if (sustainable) {
+                maxSustainable = concurrency;
+            }
+
+            print(threads, concurrency, report, overall, elapsed);
+            Map<String, Object> level = new LinkedHashMap<>();
+            level.put("concurrency", concurrency);
+            level.put("durationSeconds", elapsed.toMillis() / 1000.0);
+            level.put("sustainable", sustainable);
+            level.put("overall", overall);
+            level.put("endpoints", report.values());
+            levels.add(level);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("threads", threads);
+        summary.put("p99TargetMillis", P99_TARGET.toMillis());
+        summary.put("maxSustainableConcurrency", maxSustainable);
+        summary.put("userServiceRequests", USER_SERVICE.requestCount());
+        summary.put("notificationsPublished", rabbitTemplate.published(RabbitMQConfig.EXCHANGE_NAME, SupportNotification.class).size());
+        summary.put("levels", levels);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File("target/loadtest-report.json"), summary);
+
+        assertThat(levels).isNotEmpty();
+        assertThat(((LatencyRecorder.EndpointStats) levels.get(0).get("overall")).errors()).isZero();
+    }
+
+    private Duration run(int concurrency, Duration duration, LatencyRecorder recorder) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        Instant start = Instant.now();
+        Instant deadline = start.plus(duration);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(workers.submit(() -> {
+                while (Instant.now().isBefore(deadline)) {
+                    nextOperation(recorder);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        workers.shutdown();
+        return Duration.between(start, Instant.now());
+    }
+
+    // 50% listing, 25% detail, 15% create + submit (teacher), 10% validate (dean)
+    private void nextOperation(LatencyRecorder recorder) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        if (roll < 50) {
+            String query = switch (random.nextInt(3)) {
+                case 0 -> "";
+                case 1 -> "?niveau=" + Niveau.values()[random.nextInt(Niveau.values().length)];
+                default -> "?statut=VALID%C3%89&size=50";
+            };
+            call(recorder, "GET /api/supports", "GET", "/api/supports" + query, null, null);
+        } else if (roll < 75) {
+            Long id = seededIds.get(random.nextInt(seededIds.size()));
+            call(recorder, "GET /api/supports/{id}", "GET", "/api/supports/" + id, null, null);
+        } else if (roll < 90) {
+            String token = teacherTokens.get(random.nextInt(teacherTokens.size()));
+            String body = "{\"titre\":\"Cours charge\",\"description\":\"Support de test de charge\","
+                    + "\"fichierUrl\":\"https://files.campushub.local/load.pdf\",\"niveau\":\"L2\",\"matiere\":\"Physique\"}";
+            HttpResponse<String> created = call(recorder, "POST /api/supports", "POST", "/api/supports", body, token);
+            if (created.statusCode() == 201) {
+                long id = objectMapper.readTree(created.body()).get("id").asLong();
+                HttpResponse<String> submitted = call(recorder, "POST /api/supports/{id}/submit", "POST",
+                        "/api/supports/" + id + "/submit", null, token);
+                if (submitted.statusCode() == 200) {
+                    submittedIds.add(id);
+                }
+            }
+        } else {
+            String token = deanTokens.get(random.nextInt(deanTokens.size()));
+            Long id = submittedIds.poll();
+            if (id == null) {
+                call(recorder, "GET /api/supports/pending", "GET", "/api/supports/pending", null, token);
+            } else {
+                call(recorder, "POST /api/supports/{id}/validate", "POST", "/api/supports/" + id + "/validate",
+                        "Validé", token);
+            }
+        }
+    }
+
+    private HttpResponse<String> call(LatencyRecorder recorder, String endpoint, String method, String path,
+                                      String body, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body == null) {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.header("Content-Type", body.startsWith("{") ? "application/json" : "text/plain");
+            request.method(method, HttpRequest.BodyPublishers.ofString(body));
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        boolean error = response.statusCode() >= 400;
+        recorder.record(endpoint, System.nanoTime() - start, error);
+        if (error) {
+            System.out.printf("%s -> %d %s%n", endpoint, response.statusCode(), response.body());
+        }
+        return response;
+    }
+
+    private void seed() {
+        Niveau[] niveaux = Niveau.values();
+        List<SupportCours> supports = new ArrayList<>(SEED_SUPPORTS);
+        for (int i = 0; i < SEED_SUPPORTS; i++) {
+            SupportCours support = new SupportCours();
+            support.setTitre("Cours " + i);
+            support.setDescription("Description du cours " + i);
+            support.setFichierUrl("https://files.campushub.local/supports/" + i + ".pdf");
+            support.setNiveau(niveaux[i % niveaux.length]);
+            support.setMatiere("Matiere " + (i % 40));
+            support.setEnseignantId((long) (i % 100) + 1);
+            support.setStatut(i % 3 == 0 ? Statut.SOUMIS : Statut.VALIDÉ);
+            supports.add(support);
+        }
+        seededIds = supportCoursRepository.saveAll(supports).stream().map(SupportCours::getId).toList();
+    }
+
+    private static String token(long id, String username, String role) {
+        return Jwts.builder()
+                .setSubject(username)
+                .claim("id", id)
+                .claim("role", role)
+                .setExpiration(Date.from(Instant.now().plus(Duration.ofHours(2))))
+                .signWith(Keys.hmacShaKeyFor(DatatypeConverter.parseHexBinary(SECRET)))
+                .compact();
+    }
+
+    private static void print(String threads, int concurrency, Map<String, LatencyRecorder.EndpointStats> report,
+                              LatencyRecorder.EndpointStats overall, Duration elapsed) {
+        System.out.printf("%nLoad test: %s threads, %d workers, %.1fs, user-service latency %s, failure rate %s%n", threads,
+                concurrency, elapsed.toMillis() / 1000.0, System.getProperty("loadtest.user-service.latency", "PT0.02S"),
+                System.getProperty("loadtest.user-service.failure-rate", "0"));
+        System.out.printf("%-34s %8s %7s %9s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s",
+                "p50 ms", "p95 ms", "p99 ms", "max ms");
+        Stream.concat(report.values().stream(), Stream.of(overall)).forEach(stats ->
+                System.out.printf("%-34s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                        stats.endpoint(), stats.requests(), stats.errors(), stats.throughputPerSecond(),
+                        stats.p50Millis(), stats.p95Millis(), stats.p99Millis(), stats.maxMillis()));
+    }
+
+    private static StubUserService startUserService() {
+        try {
+            return new StubUserService(
+                    Duration.parse(System.getProperty("loadtest.user-service.latency", "PT0.02S")),
+                    Double.parseDouble(System.getProperty("loadtest.user-service.failure-rate", "0")),
+                    DEPARTMENTS, 50);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the user-service stub", e);
+        }
+    }
+}
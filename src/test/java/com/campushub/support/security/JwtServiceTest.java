@@ -0,0 +1,56 @@
+package com.campushub.support.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.xml.bind.DatatypeConverter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwtServiceTest {
+
+    private static final String SECRET = "c3b3f4d4a5e5b6c6d7e7f8a8b9c9d0e0f1a1b2c2d3e3f4a4b5c5d6e6f7a7b8c8";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtService jwtService = new JwtService(SECRET, 100, Duration.ofMinutes(10), meterRegistry);
+
+    @Test
+    void shouldParseClaimsOnceAndServeRepeatTokensFromCache() {
+        String token = token(Instant.now().plusSeconds(60));
+
+        JwtPrincipal principal = jwtService.parse(token).orElseThrow();
+
+        assertThat(principal.id()).isEqualTo(7L);
+        assertThat(principal.username()).isEqualTo("dean");
+        assertThat(principal.authorities()).extracting(Object::toString).containsExactly("ROLE_DEAN");
+        assertThat(jwtService.parse(token)).containsSame(principal);
+        assertThat(meterRegistry.get("jwt.parse").tag("result", "verified").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.parse").tag("result", "cached").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectExpiredAndTamperedTokens() {
+        assertThat(jwtService.parse(token(Instant.now().minusSeconds(60)))).isEmpty();
+
+        String token = token(Instant.now().plusSeconds(60));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThat(jwtService.parse(tampered)).isEmpty();
+        assertThat(jwtService.parse("not-a-jwt")).isEmpty();
+        assertThat(meterRegistry.get("jwt.parse").tag("result", "rejected").timer().count()).isEqualTo(3);
+    }
+
+    private String token(Instant expiresAt) {
+        return Jwts.builder()
+                .setSubject("dean")
+                .claim("id", 7L)
+                .claim("role", "dean")
+                .setExpiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(DatatypeConverter.parseHexBinary(SECRET)))
+                .compact();
+    }
+}
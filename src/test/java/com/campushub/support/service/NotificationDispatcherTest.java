@@ -0,0 +1,149 @@
+package com.campushub.support.service;
+
+import com.campushub.support.amqp.InMemoryRabbitTemplate;
+import com.campushub.support.client.UserDirectoryCache;
+import com.campushub.support.client.UserDto;
+import com.campushub.support.config.RabbitMQConfig;
+import com.campushub.support.dto.SupportNotification;
+import com.campushub.support.model.NotificationOutbox;
+import com.campushub.support.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationDispatcherTest {
+
+    private static final String OWNER = "relay:1";
+
+    private final UserDirectoryCache userDirectoryCache = mock(UserDirectoryCache.class);
+    private final NotificationOutboxRepository outboxRepository = mock(NotificationOutboxRepository.class);
+    private final InMemoryRabbitTemplate rabbitTemplate =
+            new InMemoryRabbitTemplate(new CachingConnectionFactory(), new Jackson2JsonMessageConverter());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final NotificationDispatcher dispatcher = new NotificationDispatcher(userDirectoryCache,
+            new NotificationProducer(rabbitTemplate, meterRegistry, Duration.ofSeconds(1), 1),
+            outboxRepository, mock(PlatformTransactionManager.class), objectMapper, meterRegistry,
+            new MockEnvironment(), 1, 10, 1, Duration.ofMillis(1),
+            Duration.ofSeconds(30), Duration.ofSeconds(1), Duration.ofMinutes(5), 3);
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void retriesRowsWhoseRecipientsAreUnavailableWithBackoff() throws Exception {
+        NotificationOutbox row = row(1L, "DEANS_AND_AUTHOR", 2);
+        when(userDirectoryCache.departmentMembersOf(10L, "token")).thenReturn(CompletableFuture.failedFuture(
+                WebClientResponseException.create(HttpStatus.SERVICE_UNAVAILABLE.value(), "Unavailable", null, null, null)));
+        Instant before = Instant.now();
+
+        dispatcher.deliver(List.of(row));
+
+        // Not delivered to the author alone: held back 1s x 2^2 for a later lookup
+        assertThat(rabbitTemplate.published(RabbitMQConfig.EXCHANGE_NAME, SupportNotification.class)).isEmpty();
+        verify(outboxRepository).markFailed(eq(List.of(1L)), eq(OWNER),
+                argThat(retryAt -> !retryAt.isBefore(before.plusSeconds(4)) && retryAt.isBefore(before.plusSeconds(5))));
+        verify(outboxRepository, never()).markDelivered(anyCollection(), any(), any());
+    }
+
+    @Test
+    void fallsBackToTheAuthorWhenTheLookupCanNeverSucceed() throws Exception {
+        NotificationOutbox row = row(1L, "DEANS_AND_AUTHOR", 0);
+        when(userDirectoryCache.departmentMembersOf(10L, "token")).thenReturn(CompletableFuture.failedFuture(
+                WebClientResponseException.create(HttpStatus.UNAUTHORIZED.value(), "Expired", null, null, null)));
+        leaseHeld(1L);
+
+        dispatcher.deliver(List.of(row));
+
+        assertThat(rabbitTemplate.published(RabbitMQConfig.EXCHANGE_NAME, SupportNotification.class))
+                .singleElement()
+                .satisfies(notification -> assertThat(notification.getRecipientUserIds()).containsExactly(10L));
+        verify(outboxRepository).markDelivered(eq(List.of(1L)), eq(OWNER), any());
+    }
+
+    @Test
+    void skipsRowsClaimedAgainAfterTheirLeaseExpired() throws Exception {
+        NotificationOutbox kept = row(1L, "DEANS_AND_AUTHOR", 0);
+        NotificationOutbox lost = row(2L, "DEANS_AND_AUTHOR", 0);
+        UserDto dean = new UserDto();
+        dean.setId(20L);
+        dean.setRole("DEAN");
+        when(userDirectoryCache.departmentMembersOf(10L, "token")).thenReturn(CompletableFuture.completedFuture(List.of(dean)));
+        leaseHeld(1L);
+
+        dispatcher.deliver(List.of(kept, lost));
+
+        assertThat(rabbitTemplate.published(RabbitMQConfig.EXCHANGE_NAME, SupportNotification.class))
+                .singleElement()
+                .satisfies(notification -> assertThat(notification.getRecipientUserIds()).containsExactly(20L, 10L));
+        verify(outboxRepository).markDelivered(eq(List.of(1L)), eq(OWNER), any());
+        verify(outboxRepository, never()).markFailed(anyCollection(), any(), any());
+    }
+
+    @Test
+    void abandonsUnreadableRowsAfterMaxAttempts() {
+        NotificationOutbox unreadable = row(1L, "AUTHOR", 2);
+        unreadable.setPayload("{not json");
+
+        dispatcher.deliver(List.of(unreadable));
+
+        verify(outboxRepository).markAbandoned(eq(List.of(1L)), eq(OWNER), any());
+        assertThat(meterRegistry.get("notification.outbox.abandoned").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void capsTheRetryDelay() {
+        assertThat(dispatcher.retryDelay(0)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(dispatcher.retryDelay(3)).isEqualTo(Duration.ofSeconds(8));
+        assertThat(dispatcher.retryDelay(40)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    private void leaseHeld(Long... ids) {
+        when(outboxRepository.findLeasedIds(anyCollection(), eq(OWNER))).thenReturn(List.of(ids));
+    }
+
+    private NotificationOutbox row(Long id, String audience, int attempts) {
+        SupportNotification notification = new SupportNotification();
+        notification.setSupportId(100L + id);
+        notification.setEnseignantId(10L);
+        NotificationOutbox row = new NotificationOutbox();
+        row.setId(id);
+        row.setSupportId(notification.getSupportId());
+        row.setEnseignantId(10L);
+        row.setAudience(audience);
+        row.setOperation("submitSupport");
+        row.setToken("token");
+        row.setLeaseOwner(OWNER);
+        row.setAttempts(attempts);
+        try {
+            row.setPayload(objectMapper.writeValueAsString(notification));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return row;
+    }
+}
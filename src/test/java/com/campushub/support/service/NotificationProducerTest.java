@@ -0,0 +1,68 @@
+package com.campushub.support.service;
+
+import com.campushub.support.amqp.InMemoryRabbitTemplate;
+import com.campushub.support.config.RabbitMQConfig;
+import com.campushub.support.dto.SupportNotification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NotificationProducerTest {
+
+    private InMemoryRabbitTemplate rabbitTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        rabbitTemplate = new InMemoryRabbitTemplate(new CachingConnectionFactory(), new Jackson2JsonMessageConverter());
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldRepublishNackedNotificationsUntilConfirmed() {
+        NotificationProducer producer = new NotificationProducer(rabbitTemplate, meterRegistry, Duration.ofSeconds(1), 3);
+        rabbitTemplate.nackNext(2);
+
+        List<SupportNotification> unconfirmed = producer.sendBatch(notifications(5));
+
+        assertThat(unconfirmed).isEmpty();
+        assertThat(rabbitTemplate.published(RabbitMQConfig.EXCHANGE_NAME, SupportNotification.class))
+                .extracting(SupportNotification::getSupportId)
+                .containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+        assertThat(meterRegistry.get("notification.publish.nacks").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("notification.publish.batch.size").summary().totalAmount()).isEqualTo(5);
+        assertThat(meterRegistry.get("notification.publish.confirm.latency").timer().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("notification.publish").tag("outcome", "confirmed").timer().count()).isEqualTo(1);
+        // Nacked attempts are serialized too
+        assertThat(meterRegistry.get("notification.publish.message.size").summary().count()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldReturnNotificationsStillNackedAfterLastAttempt() {
+        NotificationProducer producer = new NotificationProducer(rabbitTemplate, meterRegistry, Duration.ofSeconds(1), 2);
+        rabbitTemplate.nackNext(3);
+
+        List<SupportNotification> unconfirmed = producer.sendBatch(notifications(2));
+
+        assertThat(unconfirmed).extracting(SupportNotification::getSupportId).containsExactly(1L);
+        assertThat(rabbitTemplate.published(RabbitMQConfig.EXCHANGE_NAME, SupportNotification.class))
+                .extracting(SupportNotification::getSupportId)
+                .containsExactly(2L);
+    }
+
+    private List<SupportNotification> notifications(int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(id -> {
+            SupportNotification notification = new SupportNotification();
+            notification.setSupportId(id);
+            return notification;
+        }).toList();
+    }
+}
@@ -0,0 +1,33 @@
+package com.campushub.support.service;
+
+import com.campushub.support.client.UserDirectoryCache;
+import com.campushub.support.repository.SupportCoursRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReviewQueueTest {
+
+    private final UserDirectoryCache userDirectoryCache = mock(UserDirectoryCache.class);
+    private final ReviewQueue reviewQueue = new ReviewQueue(mock(SupportCoursRepository.class), userDirectoryCache,
+            mock(PlatformTransactionManager.class), Duration.ofMinutes(30), Duration.ofMillis(200));
+
+    @Test
+    void leavesOutUsersWhoseDepartmentIsUnknownOrLate() {
+        when(userDirectoryCache.departmentOf(1L, "token")).thenReturn(CompletableFuture.completedFuture("Informatique"));
+        when(userDirectoryCache.departmentOf(2L, "token")).thenReturn(new CompletableFuture<>());
+        when(userDirectoryCache.departmentOf(3L, "token")).thenReturn(new CompletableFuture<>());
+        when(userDirectoryCache.departmentOf(4L, "token")).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(reviewQueue.departmentsOf(List.of(1L, 2L, 3L, 4L), "token"))
+                .containsExactly(Map.entry(1L, "Informatique"));
+    }
+}
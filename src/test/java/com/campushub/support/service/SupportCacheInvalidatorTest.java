@@ -0,0 +1,99 @@
+package com.campushub.support.service;
+
+import com.campushub.support.amqp.InMemoryAmqpConfiguration;
+import com.campushub.support.amqp.InMemoryRabbitTemplate;
+import com.campushub.support.config.CacheConfig;
+import com.campushub.support.config.RabbitMQConfig;
+import com.campushub.support.dto.SupportInvalidation;
+import com.campushub.support.model.Statut;
+import com.campushub.support.model.SupportCours;
+import com.campushub.support.repository.SupportCoursRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Import(InMemoryAmqpConfiguration.class)
+@TestPropertySource(properties = "jwt.secret=c3b3f4d4a5e5b6c6d7e7f8a8b9c9d0e0f1a1b2c2d3e3f4a4b5c5d6e6f7a7b8c8")
+public class SupportCacheInvalidatorTest {
+
+    @Autowired
+    private SupportCoursService supportCoursService;
+
+    @Autowired
+    private SupportCoursRepository supportCoursRepository;
+
+    @Autowired
+    private SupportCacheInvalidator supportCacheInvalidator;
+
+    @Autowired
+    private InMemoryRabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        supportCoursRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        rabbitTemplate.reset();
+        // The other "replica" is this same listener fed through the stand-in fanout exchange
+        rabbitTemplate.subscribe(RabbitMQConfig.CACHE_INVALIDATION_EXCHANGE_NAME, SupportInvalidation.class,
+                supportCacheInvalidator::onInvalidation);
+    }
+
+    @Test
+    void shouldBroadcastSupportIdAndVersionAfterCommit() {
+        SupportCours support = saveDraft();
+
+        supportCoursService.updateSupport(support.getId(), "Updated", "Description", "http://test.url/updated.pdf");
+
+        List<SupportInvalidation> invalidations = rabbitTemplate.published(
+                RabbitMQConfig.CACHE_INVALIDATION_EXCHANGE_NAME, SupportInvalidation.class);
+        assertThat(invalidations).singleElement().satisfies(invalidation -> {
+            assertThat(invalidation.getSupportId()).isEqualTo(support.getId());
+            assertThat(invalidation.getVersion()).isEqualTo(support.getVersion() + 1);
+            assertThat(invalidation.getOrigin()).isEqualTo(supportCacheInvalidator.getInstanceId());
+        });
+    }
+
+    @Test
+    void shouldEvictStaleEntryOnRemoteInvalidation() {
+        SupportCours support = saveDraft();
+        supportCoursService.getSupportById(support.getId());
+        assertThat(cacheManager.getCache(CacheConfig.SUPPORTS_CACHE).get(support.getId())).isNotNull();
+
+        rabbitTemplate.convertAndSend(RabbitMQConfig.CACHE_INVALIDATION_EXCHANGE_NAME, "",
+                new SupportInvalidation(support.getId(), support.getVersion() + 1, "other-replica"));
+
+        assertThat(cacheManager.getCache(CacheConfig.SUPPORTS_CACHE).get(support.getId())).isNull();
+    }
+
+    @Test
+    void shouldKeepEntryAlreadyAtBroadcastVersion() {
+        SupportCours support = saveDraft();
+        supportCoursService.getSupportById(support.getId());
+
+        rabbitTemplate.convertAndSend(RabbitMQConfig.CACHE_INVALIDATION_EXCHANGE_NAME, "",
+                new SupportInvalidation(support.getId(), support.getVersion(), "other-replica"));
+
+        assertThat(cacheManager.getCache(CacheConfig.SUPPORTS_CACHE).get(support.getId())).isNotNull();
+    }
+
+    private SupportCours saveDraft() {
+        SupportCours support = new SupportCours();
+        support.setTitre("Draft");
+        support.setEnseignantId(1L);
+        support.setStatut(Statut.BROUILLON);
+        support.setFichierUrl("http://test.url/draft.pdf");
+        return supportCoursRepository.save(support);
+    }
+}
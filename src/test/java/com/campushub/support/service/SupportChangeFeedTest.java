@@ -0,0 +1,71 @@
+package com.campushub.support.service;
+
+import com.campushub.support.dto.ChangeFeedPage;
+import com.campushub.support.dto.SupportChangeDto;
+import com.campushub.support.model.SupportChange;
+import com.campushub.support.repository.SupportChangeRepository;
+import com.campushub.support.repository.SupportCoursRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SupportChangeFeedTest {
+
+    private final SupportChangeRepository changeRepository = mock(SupportChangeRepository.class);
+    private final SupportCoursRepository supportCoursRepository = mock(SupportCoursRepository.class);
+    private final SupportChangeFeed feed = new SupportChangeFeed(changeRepository, supportCoursRepository,
+            mock(PlatformTransactionManager.class), Duration.ofSeconds(5), Duration.ofHours(1));
+
+    @Test
+    void stopsBeforeARecentGapUntilItSettles() {
+        Instant now = Instant.now();
+        when(changeRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class))).thenReturn(List.of(
+                change(11L, 1L, true, now.minusSeconds(60)),
+                change(13L, 2L, true, now))); // 12 may still be committing
+        when(supportCoursRepository.findSummariesByIds(anyCollection())).thenReturn(List.of());
+
+        ChangeFeedPage page = feed.changesSince(10L, 100);
+
+        assertThat(page.getItems()).extracting(SupportChangeDto::getPosition).containsExactly(11L);
+        assertThat(page.getNextToken()).isEqualTo(11L);
+        assertThat(page.isHasMore()).isFalse();
+    }
+
+    @Test
+    void skipsSettledGapsAndKeepsLatestEntryPerSupport() {
+        Instant old = Instant.now().minusSeconds(60);
+        when(changeRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                change(1L, 1L, false, old),
+                change(4L, 2L, true, old), // 2 and 3 were rolled back or compacted
+                change(5L, 1L, true, old),
+                change(6L, 3L, true, old)));
+        when(supportCoursRepository.findSummariesByIds(anyCollection())).thenReturn(List.of());
+
+        ChangeFeedPage page = feed.changesSince(0L, 3);
+
+        assertThat(page.getItems()).extracting(SupportChangeDto::getSupportId).containsExactly(2L, 1L);
+        assertThat(page.getItems()).allMatch(SupportChangeDto::isDeleted);
+        assertThat(page.getNextToken()).isEqualTo(5L);
+        assertThat(page.isHasMore()).isTrue();
+    }
+
+    private static SupportChange change(Long id, Long supportId, boolean deleted, Instant changedAt) {
+        SupportChange change = new SupportChange();
+        change.setId(id);
+        change.setSupportId(supportId);
+        change.setDeleted(deleted);
+        change.setChangedAt(changedAt);
+        return change;
+    }
+}
@@ -0,0 +1,91 @@
+package com.campushub.support.service;
+
+import com.campushub.support.model.SupportCours;
+import com.campushub.support.repository.SupportCoursRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SupportIdFilterTest {
+
+    private final SupportCoursRepository supportCoursRepository = mock(SupportCoursRepository.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SupportIdFilter filter = new SupportIdFilter(supportCoursRepository, meterRegistry,
+            1000, 0.01, 100, Duration.ofMinutes(10), 100);
+    private final List<Long> loaded = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(supportCoursRepository.count()).thenReturn(3L);
+        when(supportCoursRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L, 50L));
+        filter.rebuild();
+    }
+
+    @Test
+    void answersMissingIdsWithoutLoadingThemAndRemembersFalsePositives() {
+        assertThat(filter.lookup(2L, loader(true))).isPresent();
+        for (long id = 3; id < 50; id++) {
+            assertThat(filter.lookup(id, loader(false))).isEmpty();
+        }
+        // Past the rebuilt range the database decides, once
+        assertThat(filter.lookup(51L, loader(false))).isEmpty();
+        assertThat(filter.lookup(51L, loader(false))).isEmpty();
+
+        assertThat(loaded).containsOnlyOnce(2L, 51L);
+        assertThat(loaded.size()).isLessThanOrEqualTo(4); // at most a couple of false positives out of 47
+        assertThat(count("filtered") + count("false_positive")).isEqualTo(47);
+        assertThat(count("not_found")).isEqualTo(1);
+        assertThat(count("negative_cached")).isEqualTo(1);
+        assertThat(meterRegistry.get("supports.ids.filter.memory").gauge().value()).isPositive();
+    }
+
+    @Test
+    void followsCreationsAndDeletions() {
+        assertThat(filter.lookup(51L, loader(false))).isEmpty();
+
+        filter.onSupportWritten(new SupportChangedEvent(51L, new SupportCours()));
+        filter.onSupportChanged(new SupportChangedEvent(51L, new SupportCours()));
+        assertThat(filter.lookup(51L, loader(true))).isPresent();
+
+        filter.onRemoteChange(2L, true);
+        assertThat(filter.lookup(2L, loader(true))).isEmpty();
+        assertThat(loaded).containsExactly(51L, 51L);
+    }
+
+    @Test
+    void keepsIdsWrittenDuringARebuild() {
+        when(supportCoursRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            // Committed after the scan read past it
+            filter.onSupportChanged(new SupportChangedEvent(7L, new SupportCours()));
+            return List.of(1L, 2L, 50L);
+        });
+        filter.rebuild();
+
+        assertThat(filter.lookup(7L, loader(true))).isPresent();
+    }
+
+    private Function<Long, Optional<String>> loader(boolean exists) {
+        return id -> {
+            loaded.add(id);
+            return exists ? Optional.of("support " + id) : Optional.empty();
+        };
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("supports.ids.lookups").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,117 @@
+package com.campushub.support.service;
+
+import com.campushub.support.dto.SearchPage;
+import com.campushub.support.dto.SupportCoursSummaryDto;
+import com.campushub.support.model.Niveau;
+import com.campushub.support.model.Statut;
+import com.campushub.support.model.SupportCours;
+import com.campushub.support.repository.SupportCoursRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SupportSearchIndexTest {
+
+    private final SupportCoursRepository repository = mock(SupportCoursRepository.class);
+    private final SupportSearchIndex index = new SupportSearchIndex(repository, "", 100);
+
+    @AfterEach
+    void close() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void ranksTitleMatchesFirstAndMatchesPrefixesWithoutAccents() throws IOException {
+        index(support(1L, 1L, "Réseaux de neurones", "Introduction à l'apprentissage", "Informatique", Niveau.L3, Statut.VALIDÉ));
+        index(support(2L, 1L, "Algèbre linéaire", "Rappels utiles pour les réseaux", "Mathématiques", Niveau.L1, Statut.VALIDÉ));
+        index(support(3L, 1L, "Chimie organique", "Travaux pratiques", "Chimie", Niveau.L2, Statut.VALIDÉ));
+        index.refresh();
+
+        assertThat(ids(index.search("reseaux", null, null, null, null))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("appren", null, null, null, null))).containsExactly(1L);
+        assertThat(ids(index.search("algebre lin", null, null, null, null))).containsExactly(2L);
+        assertThat(ids(index.search("reseaux", Niveau.L1, null, null, null))).containsExactly(2L);
+        assertThat(ids(index.search(null, null, Statut.VALIDÉ, null, null))).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void pagesThroughRankedResults() throws IOException {
+        for (long id = 1; id <= 5; id++) {
+            index(support(id, 1L, "Analyse " + id, null, "Mathématiques", Niveau.L1, Statut.SOUMIS));
+        }
+        index.refresh();
+
+        SearchPage<SupportCoursSummaryDto> first = index.search("analyse", null, null, 0, 2);
+        SearchPage<SupportCoursSummaryDto> last = index.search("analyse", null, null, 2, 2);
+
+        assertThat(first.getTotalHits()).isEqualTo(5);
+        assertThat(ids(first)).containsExactly(5L, 4L);
+        assertThat(ids(last)).containsExactly(1L);
+        assertThat(first.getItems().get(0).getStatut()).isEqualTo(Statut.SOUMIS);
+    }
+
+    @Test
+    void ignoresStaleEventsAndDeletedSupports() throws IOException {
+        index(support(1L, 2L, "Physique quantique", null, "Physique", Niveau.M1, Statut.SOUMIS));
+        index(support(1L, 1L, "Brouillon de physique", null, "Physique", Niveau.M1, Statut.BROUILLON));
+        index(support(2L, 1L, "Physique nucléaire", null, "Physique", Niveau.M1, Statut.SOUMIS));
+        index.onSupportChanged(new SupportChangedEvent(2L, null));
+        index(support(2L, 0L, "Physique nucléaire", null, "Physique", Niveau.M1, Statut.BROUILLON));
+        index.refresh();
+
+        SearchPage<SupportCoursSummaryDto> page = index.search("physique", null, null, null, null);
+        assertThat(ids(page)).containsExactly(1L);
+        assertThat(page.getItems().get(0).getTitre()).isEqualTo("Physique quantique");
+    }
+
+    @Test
+    void rebuildsFromTheDatabase() throws IOException {
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(PageRequest.class)))
+                .thenReturn(List.of(support(7L, 0L, "Thermodynamique", null, "Physique", Niveau.L2, Statut.VALIDÉ)));
+        when(repository.findByIdGreaterThanOrderByIdAsc(eq(7L), any(PageRequest.class))).thenReturn(List.of());
+
+        index.rebuild();
+
+        assertThat(ids(index.search("thermo", null, null, null, null))).containsExactly(7L);
+    }
+
+    @Test
+    void appliesChangesCommittedByOtherReplicas() throws IOException {
+        index(support(1L, 1L, "Optique", null, "Physique", Niveau.L1, Statut.BROUILLON));
+        index(support(2L, 1L, "Optique ondulatoire", null, "Physique", Niveau.L2, Statut.VALIDÉ));
+        when(repository.findById(1L)).thenReturn(Optional.of(support(1L, 2L, "Optique géométrique", null, "Physique", Niveau.L1, Statut.SOUMIS)));
+
+        index.onRemoteChange(1L, 2L);
+        index.onRemoteChange(2L, null);
+        index.refresh();
+
+        SearchPage<SupportCoursSummaryDto> page = index.search("optique", null, null, null, null);
+        assertThat(ids(page)).containsExactly(1L);
+        assertThat(page.getItems().get(0).getStatut()).isEqualTo(Statut.SOUMIS);
+    }
+
+    private void index(SupportCours support) {
+        index.onSupportChanged(new SupportChangedEvent(support.getId(), support));
+    }
+
+    private static List<Long> ids(SearchPage<SupportCoursSummaryDto> page) {
+        return page.getItems().stream().map(SupportCoursSummaryDto::getId).toList();
+    }
+
+    private static SupportCours support(Long id, Long version, String titre, String description, String matiere,
+                                        Niveau niveau, Statut statut) {
+        return new SupportCours(id, titre, description, "http://files/" + id + ".pdf", niveau, matiere, 10L,
+                LocalDate.of(2024, 1, 15), statut, null, null, version, null, null, null, null, null);
+    }
+}